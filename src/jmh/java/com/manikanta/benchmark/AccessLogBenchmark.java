@@ -0,0 +1,158 @@
+package com.manikanta.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import com.manikanta.HttpServerVerticle;
+import com.manikanta.ServerConfig;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the access log on the event loops: the hello world route with the access log off and on
+ * (written to a temporary file), same client setup as {@link HttpServerBenchmark}.
+ * <ul>
+ * <li><code>http1Pipelined</code>: throughput, {@link HttpServerBenchmark#DEPTH} requests in flight</li>
+ * <li><code>http1Latency</code>: one request at a time; SampleTime mode reports the p50/p99/p999, where
+ * a writer blocking the event loop would show</li>
+ * </ul>
+ * <code>gc.alloc.rate.norm</code> (GC profiler) should be the same with and without the access log.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class AccessLogBenchmark {
+
+    private static final int PORT = 9966;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean accessLog;
+
+    private Path directory;
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+
+    private Context clientContext;
+    private HttpClient client;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("access-log");
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, PORT);
+        if (accessLog) {
+            config.put(ServerConfig.ACCESS_LOG, new JsonObject().put("path", directory.resolve("access.log").toString()));
+        }
+
+        serverVertx = Vertx.vertx();
+
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        serverVertx.deployVerticle(HttpServerVerticle::new,
+                                   new DeploymentOptions().setConfig(config),
+                                   ar -> {
+                                       if (ar.succeeded()) deployed.complete(ar.result());
+                                       else deployed.completeExceptionally(ar.cause());
+                                   });
+        deployed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        clientContext = clientVertx.getOrCreateContext();
+        client = clientVertx.createHttpClient(new HttpClientOptions()
+                                                  .setDefaultHost("localhost")
+                                                  .setDefaultPort(PORT)
+                                                  .setKeepAlive(true)
+                                                  .setTcpNoDelay(true)
+                                                  .setPipelining(true)
+                                                  .setPipeliningLimit(HttpServerBenchmark.DEPTH)
+                                                  .setMaxPoolSize(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        clientVertx.close();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        serverVertx.close(ar -> closed.countDown());
+        closed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    // The writer may still hold it, left in the temporary directory
+                }
+            });
+        }
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(HttpServerBenchmark.DEPTH)
+    public void http1Pipelined() throws Exception {
+        send(HttpServerBenchmark.DEPTH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void http1Latency() throws Exception {
+        send(1);
+    }
+
+
+    private void send(int requests) throws Exception {
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        clientContext.runOnContext(v -> {
+            for (int i = 0; i < requests; i++) {
+                client.get("/", response -> response.handler(chunk -> {})
+                                                    .endHandler(end -> latch.countDown()))
+                      .exceptionHandler(ex -> {
+                          failure.set(ex);
+                          latch.countDown();
+                      })
+                      .end();
+            }
+        });
+
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for " + requests + " responses");
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+}
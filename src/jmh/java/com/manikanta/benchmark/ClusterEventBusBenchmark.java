@@ -0,0 +1,137 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import com.manikanta.ServerConfig;
+import com.manikanta.cluster.ClusterSupport;
+import com.manikanta.cluster.NodeAwareEventBus;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request/reply on a clustered event bus, requests/sec: two nodes (clustered Vertx instances) in this JVM,
+ * joined over loopback, both with a consumer on the same address. {@link #BATCH} requests in flight from
+ * the first node:
+ * <ul>
+ * <li><code>clusterWide</code>: plain send, round-robin over the consumers of both nodes</li>
+ * <li><code>localFirst</code>: {@link NodeAwareEventBus#send}, served by the consumer of the sending node</li>
+ * <li><code>remoteNode</code>: {@link NodeAwareEventBus#sendToNode}, every request crosses the network</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClusterEventBusBenchmark {
+
+    static final int BATCH = 100;
+
+    private static final String ADDRESS = "quotes";
+
+    // Away from the default port, so the benchmark doesn't join a running server's cluster
+    private static final JsonObject CLUSTER_CONFIG = new JsonObject()
+        .put(ServerConfig.CLUSTER, true)
+        .put(ServerConfig.CLUSTER_PORT, 5801);
+
+    private Vertx sender;
+    private Vertx receiver;
+    private NodeAwareEventBus senderBus;
+    private String receiverNodeId;
+    private volatile CountDownLatch replies;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        sender = startNode();
+        receiver = startNode();
+
+        senderBus = new NodeAwareEventBus(sender);
+        NodeAwareEventBus receiverBus = new NodeAwareEventBus(receiver);
+        receiverNodeId = receiverBus.nodeId();
+
+        senderBus.consumer(ADDRESS, message -> message.reply(message.body()));
+        receiverBus.consumer(ADDRESS, message -> message.reply(message.body()));
+
+        // Consumer registrations are propagated asynchronously to the other node
+        Thread.sleep(1_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        close(sender);
+        close(receiver);
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void clusterWide() throws Exception {
+        request(i -> sender.eventBus().send(ADDRESS, i, ar -> reply(ar.succeeded())));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void localFirst() throws Exception {
+        request(i -> senderBus.send(ADDRESS, i, ar -> reply(ar.succeeded())));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void remoteNode() throws Exception {
+        request(i -> senderBus.sendToNode(receiverNodeId, ADDRESS, i, ar -> reply(ar.succeeded())));
+    }
+
+
+    private void request(IntConsumer send) throws Exception {
+        replies = new CountDownLatch(BATCH);
+
+        for (int i = 0; i < BATCH; i++) {
+            send.accept(i);
+        }
+
+        if (!replies.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the replies");
+        }
+    }
+
+    private void reply(boolean succeeded) {
+        if (!succeeded) {
+            throw new IllegalStateException("Request failed");
+        }
+        replies.countDown();
+    }
+
+    private static Vertx startNode() throws Exception {
+        CompletableFuture<Vertx> started = new CompletableFuture<>();
+        ClusterSupport.createVertx(new VertxOptions(), CLUSTER_CONFIG, ar -> {
+            if (ar.succeeded()) started.complete(ar.result());
+            else started.completeExceptionally(ar.cause());
+        });
+        return started.get(60, TimeUnit.SECONDS);
+    }
+
+    private static void close(Vertx vertx) throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(ar -> closed.complete(null));
+        closed.get(30, TimeUnit.SECONDS);
+    }
+}
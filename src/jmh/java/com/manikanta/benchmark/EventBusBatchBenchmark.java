@@ -0,0 +1,108 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.eventbus.BatchingPublisher;
+import com.manikanta.eventbus.EventBusCodecs;
+import com.manikanta.eventbus.StockTick;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stock ticks published to {@link #CONSUMERS} local consumers, ticks/sec: one message per tick vs
+ * {@link BatchingPublisher} batches of <code>batchSize</code> ticks.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventBusBatchBenchmark {
+
+    static final int TICKS = 10_000;
+    static final int CONSUMERS = 4;
+
+    private static final String SINGLE = "stocks.google.single";
+    private static final String BATCHED = "stocks.google.batched";
+
+    @Param({"16", "128"})
+    public int batchSize;
+
+    private Vertx vertx;
+    private Context publisherContext;
+    private EventBus eventBus;
+    private BatchingPublisher<StockTick> publisher;
+    private StockTick tick;
+    private volatile CountDownLatch received;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        vertx = Vertx.vertx();
+        EventBusCodecs.register(vertx);
+
+        eventBus = vertx.eventBus();
+        for (int i = 0; i < CONSUMERS; i++) {
+            eventBus.<StockTick>localConsumer(SINGLE, message -> received.countDown());
+            BatchingPublisher.<StockTick>localConsumer(eventBus, BATCHED, item -> received.countDown());
+        }
+
+        publisherContext = vertx.getOrCreateContext();
+        publisher = new BatchingPublisher<>(vertx, StockTick.class, batchSize, 10);
+        tick = new StockTick("GOOG", 120_550, System.currentTimeMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        vertx.close();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public void perTickMessages() throws Exception {
+        run(() -> {
+            for (int i = 0; i < TICKS; i++) {
+                eventBus.publish(SINGLE, tick);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public void batchedMessages() throws Exception {
+        run(() -> {
+            for (int i = 0; i < TICKS; i++) {
+                publisher.publish(BATCHED, tick);
+            }
+            publisher.flush();
+        });
+    }
+
+
+    private void run(Runnable publish) throws Exception {
+        received = new CountDownLatch(TICKS * CONSUMERS);
+        publisherContext.runOnContext(v -> publish.run());
+
+        if (!received.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the ticks");
+        }
+    }
+}
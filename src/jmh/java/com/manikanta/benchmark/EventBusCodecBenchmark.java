@@ -0,0 +1,136 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.eventbus.EventBusCodecs;
+import com.manikanta.eventbus.StockTick;
+import com.manikanta.eventbus.StockTickCodec;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.impl.codecs.JsonObjectMessageCodec;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Event bus codecs, msgs/sec:
+ * <ul>
+ * <li><code>wire*</code>: encode + decode of one stock tick, as done when a message crosses nodes; the
+ * bytes per message of both formats are printed at setup</li>
+ * <li><code>local*</code>: {@link #BATCH} messages sent to a local consumer - default JsonObject codec (one
+ * copy per delivery), pass-through JsonObject codec and StockTick codec (no copy)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventBusCodecBenchmark {
+
+    static final int BATCH = 1_000;
+
+    private static final String ADDRESS = "stocks.google";
+
+    private final StockTickCodec binaryCodec = new StockTickCodec();
+    private final JsonObjectMessageCodec jsonCodec = new JsonObjectMessageCodec();
+
+    private StockTick tick;
+    private JsonObject tickJson;
+
+    private Vertx vertx;
+    private EventBus eventBus;
+    private MessageConsumer<Object> consumer;
+    private volatile CountDownLatch received;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tick = new StockTick("GOOG", 120_550, System.currentTimeMillis());
+        tickJson = tick.toJson();
+
+        Buffer binary = Buffer.buffer();
+        binaryCodec.encodeToWire(binary, tick);
+        Buffer json = Buffer.buffer();
+        jsonCodec.encodeToWire(json, tickJson);
+        System.out.println("\nBytes per message: binary " + binary.length() + ", JSON " + json.length());
+
+        vertx = Vertx.vertx();
+        EventBusCodecs.register(vertx);
+
+        eventBus = vertx.eventBus();
+        consumer = eventBus.localConsumer(ADDRESS, message -> {
+            message.body(); // Decoded (i.e. transformed) lazily
+            received.countDown();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        consumer.unregister();
+        vertx.close();
+    }
+
+
+    @Benchmark
+    public StockTick wireBinary() {
+        Buffer buffer = Buffer.buffer(32);
+        binaryCodec.encodeToWire(buffer, tick);
+        return binaryCodec.decodeFromWire(0, buffer);
+    }
+
+    @Benchmark
+    public JsonObject wireJson() {
+        Buffer buffer = Buffer.buffer(64);
+        jsonCodec.encodeToWire(buffer, tickJson);
+        return jsonCodec.decodeFromWire(0, buffer);
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void localDefaultJsonCodec() throws Exception {
+        send(tickJson, new DeliveryOptions());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void localPassThroughJsonCodec() throws Exception {
+        send(tickJson, EventBusCodecs.passThroughJson());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void localStockTickCodec() throws Exception {
+        send(tick, new DeliveryOptions());
+    }
+
+
+    private void send(Object body, DeliveryOptions options) throws Exception {
+        received = new CountDownLatch(BATCH);
+
+        for (int i = 0; i < BATCH; i++) {
+            eventBus.send(ADDRESS, body, options);
+        }
+
+        if (!received.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the messages");
+        }
+    }
+}
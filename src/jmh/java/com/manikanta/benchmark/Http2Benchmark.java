@@ -0,0 +1,188 @@
+package com.manikanta.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.manikanta.HttpServerVerticle;
+import com.manikanta.ServerConfig;
+import com.manikanta.tls.SelfSignedCertificates;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * HTTP/1.1 pipelining against HTTP/2 multiplexing: {@link #DEPTH} requests in flight on a single connection,
+ * for a static file (random, served from the hot file cache, compression off) of <code>fileSize</code> bytes.
+ * <ul>
+ * <li><code>tls</code> false: HTTP/1.1 and h2c (prior knowledge)</li>
+ * <li><code>tls</code> true: HTTPS/1.1 and h2 (ALPN), self-signed certificate generated for the trial</li>
+ * <li><code>windowSize</code>: initial stream and connection windows of the h2 client, i.e. how much of the
+ * responses the server may send before waiting for a WINDOW_UPDATE (65535: protocol default)</li>
+ * </ul>
+ * Server and client run on their own Vertx instances.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class Http2Benchmark {
+
+    static final int DEPTH = 16;
+
+    private static final int PORT = 9969;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Param({"1024", "1048576"})
+    public int fileSize;
+
+    @Param({"false", "true"})
+    public boolean tls;
+
+    @Param({"65535", "1048576"})
+    public int windowSize;
+
+    private Path root;
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+
+    // All the requests are sent from one context, so each client really uses a single connection
+    private Context clientContext;
+    private HttpClient http1Client;
+    private HttpClient http2Client;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        byte[] content = new byte[fileSize];
+        new Random(1).nextBytes(content);
+
+        root = Files.createTempDirectory("static");
+        Files.write(root.resolve("file.bin"), content);
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, PORT)
+            .put(ServerConfig.COMPRESSION, false)
+            .put(ServerConfig.STATIC_ROOT, root.toString())
+            .put(ServerConfig.STATIC_CACHE_MAX_FILE_SIZE, fileSize)
+            .put(ServerConfig.HTTP2, new JsonObject().put("maxConcurrentStreams", DEPTH));
+        if (tls) {
+            config.put(ServerConfig.TLS, SelfSignedCertificates.create().tlsConfig());
+        }
+
+        serverVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        serverVertx.deployVerticle(HttpServerVerticle::new,
+                                   new DeploymentOptions().setConfig(config),
+                                   ar -> {
+                                       if (ar.succeeded()) deployed.complete(ar.result());
+                                       else deployed.completeExceptionally(ar.cause());
+                                   });
+        deployed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        clientContext = clientVertx.getOrCreateContext();
+
+        http1Client = clientVertx.createHttpClient(clientOptions()
+                                                       .setPipelining(true)
+                                                       .setPipeliningLimit(DEPTH)
+                                                       .setMaxPoolSize(1));
+
+        http2Client = clientVertx.createHttpClient(clientOptions()
+                                                       .setProtocolVersion(HttpVersion.HTTP_2)
+                                                       .setUseAlpn(tls)
+                                                       .setHttp2ClearTextUpgrade(false)
+                                                       .setHttp2MultiplexingLimit(DEPTH)
+                                                       .setHttp2MaxPoolSize(1)
+                                                       .setInitialSettings(new Http2Settings().setInitialWindowSize(windowSize))
+                                                       .setHttp2ConnectionWindowSize(windowSize));
+    }
+
+    private HttpClientOptions clientOptions() {
+        return new HttpClientOptions()
+            .setDefaultHost("localhost")
+            .setDefaultPort(PORT)
+            .setKeepAlive(true)
+            .setTcpNoDelay(true)
+            .setSsl(tls)
+            .setTrustAll(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        clientVertx.close();
+        serverVertx.close();
+
+        Files.delete(root.resolve("file.bin"));
+        Files.delete(root);
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(DEPTH)
+    public void http1Pipelined() throws Exception {
+        send(http1Client);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(DEPTH)
+    public void http2Multiplexed() throws Exception {
+        send(http2Client);
+    }
+
+
+    private void send(HttpClient client) throws Exception {
+        CountDownLatch latch = new CountDownLatch(DEPTH);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        clientContext.runOnContext(v -> {
+            for (int i = 0; i < DEPTH; i++) {
+                client.get("/static/file.bin", response -> {
+                    if (response.statusCode() != 200) {
+                        failure.set(new IllegalStateException("Status " + response.statusCode()));
+                    }
+                    response.handler(chunk -> {})
+                            .endHandler(end -> latch.countDown());
+                }).exceptionHandler(ex -> {
+                    failure.set(ex);
+                    latch.countDown();
+                }).end();
+            }
+        });
+
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for " + DEPTH + " responses");
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+}
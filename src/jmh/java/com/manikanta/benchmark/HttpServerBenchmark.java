@@ -0,0 +1,176 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.manikanta.HttpServerVerticle;
+import com.manikanta.ServerConfig;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hot path of {@link HttpServerVerticle}: the verticle is deployed in-process and driven by a Vert.x
+ * HTTP client running on its own Vertx instance (so the client doesn't steal the server event loops).
+ * <ul>
+ * <li><code>*Pipelined</code>/<code>*Multiplexed</code>: throughput, {@link #DEPTH} requests in flight
+ * on a single HTTP/1.1 (pipelined) or h2c (prior knowledge, multiplexed) connection</li>
+ * <li><code>*Latency</code>: one request at a time; SampleTime mode reports the p50/p99/p999</li>
+ * </ul>
+ * Allocation per request comes from the GC profiler (<code>-prof gc</code>, enabled by default in the
+ * 'benchmark' profile): <code>gc.alloc.rate.norm</code> is bytes per op, client side included.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class HttpServerBenchmark {
+
+    static final int DEPTH = 16;
+
+    private static final int PORT = 9990;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean compression;
+
+    @Param({"true", "false"})
+    public boolean nativeTransport;
+
+    @Param({"1", "4"})
+    public int instances;
+
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+
+    // All the requests are sent from one context, so each client really uses a single connection
+    private Context clientContext;
+    private HttpClient http1Client;
+    private HttpClient h2cClient;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, PORT)
+            .put(ServerConfig.COMPRESSION, compression);
+
+        serverVertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(nativeTransport));
+
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        serverVertx.deployVerticle(HttpServerVerticle::new,
+                                   new DeploymentOptions().setConfig(config).setInstances(instances),
+                                   ar -> {
+                                       if (ar.succeeded()) deployed.complete(ar.result());
+                                       else deployed.completeExceptionally(ar.cause());
+                                   });
+        deployed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        clientVertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(nativeTransport)
+                                                    .setEventLoopPoolSize(1));
+        clientContext = clientVertx.getOrCreateContext();
+
+        http1Client = clientVertx.createHttpClient(clientOptions()
+                                                       .setPipelining(true)
+                                                       .setPipeliningLimit(DEPTH)
+                                                       .setMaxPoolSize(1));
+
+        h2cClient = clientVertx.createHttpClient(clientOptions()
+                                                     .setProtocolVersion(HttpVersion.HTTP_2)
+                                                     .setHttp2ClearTextUpgrade(false)
+                                                     .setHttp2MultiplexingLimit(DEPTH)
+                                                     .setHttp2MaxPoolSize(1));
+    }
+
+    private HttpClientOptions clientOptions() {
+        return new HttpClientOptions()
+            .setDefaultHost("localhost")
+            .setDefaultPort(PORT)
+            .setKeepAlive(true)
+            .setTcpNoDelay(true)
+            .setTryUseCompression(compression);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        clientVertx.close();
+        serverVertx.close();
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(DEPTH)
+    public void http1Pipelined() throws Exception {
+        send(http1Client, DEPTH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(DEPTH)
+    public void h2cMultiplexed() throws Exception {
+        send(h2cClient, DEPTH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void http1Latency() throws Exception {
+        send(http1Client, 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void h2cLatency() throws Exception {
+        send(h2cClient, 1);
+    }
+
+
+    private void send(HttpClient client, int requests) throws Exception {
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        clientContext.runOnContext(v -> {
+            for (int i = 0; i < requests; i++) {
+                client.get("/", response -> response.handler(chunk -> {})
+                                                    .endHandler(end -> latch.countDown()))
+                      .exceptionHandler(ex -> {
+                          failure.set(ex);
+                          latch.countDown();
+                      })
+                      .end();
+            }
+        });
+
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for " + requests + " responses");
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+}
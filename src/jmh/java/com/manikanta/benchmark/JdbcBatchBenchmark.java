@@ -0,0 +1,99 @@
+package com.manikanta.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.data.JdbcDataAccess;
+import com.manikanta.data.PurchaseRepository;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Write throughput (rows/sec) of {@link PurchaseRepository} on an embedded H2 database:
+ * {@link #ROWS} single row inserts issued concurrently (one statement & commit each, spread over the pool)
+ * vs the same rows as one JDBC batch in a single transaction.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JdbcBatchBenchmark {
+
+    static final int ROWS = 100;
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    private Vertx vertx;
+    private JdbcDataAccess dataAccess;
+    private PurchaseRepository purchases;
+    private List<JsonObject> rows;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        vertx = Vertx.vertx();
+        dataAccess = new JdbcDataAccess(vertx, new JsonObject()
+            .put("url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+            .put("driver_class", "org.h2.Driver"));
+        purchases = new PurchaseRepository(dataAccess);
+
+        await(purchases.createSchema());
+
+        rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new JsonObject().put("userId", "user-" + (i % 10)).put("amount", i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        dataAccess.close();
+        vertx.close();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleRowInserts() throws Exception {
+        List<Future> inserts = new ArrayList<>(ROWS);
+        for (JsonObject row : rows) {
+            inserts.add(purchases.insert(row.getString("userId"), row.getInteger("amount")));
+        }
+        await(CompositeFuture.all(inserts));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchedInsert() throws Exception {
+        await(purchases.insertAll(rows));
+    }
+
+
+    private static <T> T await(Future<T> future) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.setHandler(ar -> {
+            if (ar.succeeded()) result.complete(ar.result());
+            else result.completeExceptionally(ar.cause());
+        });
+        return result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+}
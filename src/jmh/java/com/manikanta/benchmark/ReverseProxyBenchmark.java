@@ -0,0 +1,184 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.manikanta.HttpServerVerticle;
+import com.manikanta.ServerConfig;
+import com.manikanta.proxy.ReverseProxy;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ReverseProxy} in front of a local stub upstream (fixed response of <code>responseSize</code> bytes),
+ * each on its own Vertx instance, as is the client:
+ * <ul>
+ * <li><code>*Latency</code>: one request at a time, straight to the upstream vs through the proxy; the
+ * difference of the two is the latency added by the hop (SampleTime mode, p50/p99/p999)</li>
+ * <li><code>*Throughput</code>: {@link #CONCURRENCY} requests in flight (client pool of 8 connections)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class ReverseProxyBenchmark {
+
+    static final int CONCURRENCY = 64;
+
+    private static final int UPSTREAM_PORT = 9988;
+    private static final int PROXY_PORT = 9989;
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Param({"128", "65536"})
+    public int responseSize;
+
+    private Vertx upstreamVertx;
+    private Vertx proxyVertx;
+    private Vertx clientVertx;
+    private Context clientContext;
+    private HttpClient directClient;
+    private HttpClient proxiedClient;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Buffer body = Buffer.buffer(new byte[responseSize]);
+
+        upstreamVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+        CompletableFuture<Void> listening = new CompletableFuture<>();
+        upstreamVertx.createHttpServer(new HttpServerOptions().setTcpNoDelay(true))
+                     .requestHandler(req -> req.response().end(body))
+                     .listen(UPSTREAM_PORT, ar -> {
+                         if (ar.succeeded()) listening.complete(null);
+                         else listening.completeExceptionally(ar.cause());
+                     });
+        listening.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, PROXY_PORT)
+            .put(ServerConfig.COMPRESSION, false)
+            .put(ServerConfig.UPSTREAMS, new JsonObject()
+                .put("stub", new JsonObject()
+                    .put("host", "localhost")
+                    .put("port", UPSTREAM_PORT)
+                    .put("maxPoolSize", 8)
+                    .put("pipeliningLimit", 8)))
+            .put(ServerConfig.PROXY, new JsonObject().put("/", "stub"));
+
+        proxyVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        proxyVertx.deployVerticle(HttpServerVerticle::new,
+                                  new DeploymentOptions().setConfig(config).setInstances(2),
+                                  ar -> {
+                                      if (ar.succeeded()) deployed.complete(ar.result());
+                                      else deployed.completeExceptionally(ar.cause());
+                                  });
+        deployed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        clientContext = clientVertx.getOrCreateContext();
+        directClient = clientVertx.createHttpClient(clientOptions(UPSTREAM_PORT));
+        proxiedClient = clientVertx.createHttpClient(clientOptions(PROXY_PORT));
+    }
+
+    private HttpClientOptions clientOptions(int port) {
+        return new HttpClientOptions()
+            .setDefaultHost("localhost")
+            .setDefaultPort(port)
+            .setKeepAlive(true)
+            .setTcpNoDelay(true)
+            .setMaxPoolSize(8)
+            .setPipelining(true)
+            .setPipeliningLimit(CONCURRENCY / 8);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        clientVertx.close();
+        proxyVertx.close();
+        upstreamVertx.close();
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void directLatency() throws Exception {
+        send(directClient, 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void proxiedLatency() throws Exception {
+        send(proxiedClient, 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(CONCURRENCY)
+    public void directThroughput() throws Exception {
+        send(directClient, CONCURRENCY);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(CONCURRENCY)
+    public void proxiedThroughput() throws Exception {
+        send(proxiedClient, CONCURRENCY);
+    }
+
+
+    private void send(HttpClient client, int requests) throws Exception {
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        clientContext.runOnContext(v -> {
+            for (int i = 0; i < requests; i++) {
+                client.get("/quotes", response -> {
+                    if (response.statusCode() != 200) {
+                        failure.set(new IllegalStateException("Status " + response.statusCode()));
+                    }
+                    response.handler(chunk -> {})
+                            .endHandler(end -> latch.countDown());
+                }).exceptionHandler(ex -> {
+                    failure.set(ex);
+                    latch.countDown();
+                }).end();
+            }
+        });
+
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for " + requests + " responses");
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.manikanta.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.routing.TrieRouter;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Route matching cost vs number of routes, vertx-web <code>Router</code> vs {@link TrieRouter}.
+ * <p>
+ * <code>routes</code> parameterized routes (<code>/api/resource{i}/:id</code>) plus as many exact ones
+ * (<code>/api/resource{i}/list</code>); the requests go to the last registered ones, the worst case of an in
+ * order scan. The requests are stubs (no network, no response written), so only the routing is measured.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int routes;
+
+    private Vertx vertx;
+    private Router webRouter;
+    private TrieRouter trieRouter;
+    private HttpServerRequest paramRequest;
+    private HttpServerRequest exactRequest;
+    private Blackhole blackhole;
+
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        vertx = Vertx.vertx();
+        webRouter = Router.router(vertx);
+        TrieRouter.Builder trieRoutes = TrieRouter.builder();
+
+        for (int i = 0; i < routes; i++) {
+            String base = "/api/resource" + i;
+
+            webRouter.get(base + "/list").handler(context -> this.blackhole.consume(context));
+            webRouter.get(base + "/:id").handler(context -> this.blackhole.consume(context.pathParam("id")));
+
+            trieRoutes.get(base + "/list", (request, params) -> this.blackhole.consume(request));
+            trieRoutes.get(base + "/:id", (request, params) -> this.blackhole.consume(params.get("id")));
+        }
+        trieRouter = trieRoutes.build();
+
+        paramRequest = stubRequest("/api/resource" + (routes - 1) + "/42");
+        exactRequest = stubRequest("/api/resource" + (routes - 1) + "/list");
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        vertx.close();
+    }
+
+
+    @Benchmark
+    public void webRouterParam() {
+        webRouter.handle(paramRequest);
+    }
+
+    @Benchmark
+    public void webRouterExact() {
+        webRouter.handle(exactRequest);
+    }
+
+    @Benchmark
+    public void trieRouterParam() {
+        trieRouter.handle(paramRequest);
+    }
+
+    @Benchmark
+    public void trieRouterExact() {
+        trieRouter.handle(exactRequest);
+    }
+
+
+    // GET request with the given path, answering only what the routers read
+    private static HttpServerRequest stubRequest(String path) {
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        MultiMap params = MultiMap.caseInsensitiveMultiMap();
+
+        return (HttpServerRequest) Proxy.newProxyInstance(
+            RouterBenchmark.class.getClassLoader(),
+            new Class<?>[] {HttpServerRequest.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "method":
+                        return HttpMethod.GET;
+                    case "path":
+                    case "uri":
+                        return path;
+                    case "headers":
+                        return headers;
+                    case "params":
+                        return params;
+                    case "isSSL":
+                        return false;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+}
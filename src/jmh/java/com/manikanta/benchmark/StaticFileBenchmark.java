@@ -0,0 +1,152 @@
+package com.manikanta.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.manikanta.HttpServerVerticle;
+import com.manikanta.ServerConfig;
+import com.manikanta.staticfiles.StaticFiles;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The two {@link StaticFiles} paths for the same file (random, so incompressible, of <code>fileSize</code>
+ * bytes), {@link #CONCURRENCY} requests in flight:
+ * <ul>
+ * <li><code>CACHE</code>: from the hot file cache (off-heap buffer written to the socket)</li>
+ * <li><code>SEND_FILE</code>: from disk; zero-copy only when <code>compression</code> is false (the compressor
+ * in the pipeline makes Vert.x read the file in 8KB chunks instead)</li>
+ * </ul>
+ * Server and client run on their own Vertx instances.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class StaticFileBenchmark {
+
+    static final int CONCURRENCY = 16;
+
+    private static final int PORT = 9976;
+    private static final long TIMEOUT_MS = 10_000;
+
+    public enum Source {
+        CACHE,
+        SEND_FILE
+    }
+
+    @Param({"4096", "1048576"})
+    public int fileSize;
+
+    @Param
+    public Source source;
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    private Path root;
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+    private Context clientContext;
+    private HttpClient client;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        byte[] content = new byte[fileSize];
+        new Random(1).nextBytes(content);
+
+        root = Files.createTempDirectory("static");
+        Files.write(root.resolve("file.bin"), content);
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, PORT)
+            .put(ServerConfig.COMPRESSION, compression)
+            .put(ServerConfig.STATIC_ROOT, root.toString())
+            .put(ServerConfig.STATIC_CACHE_MAX_FILE_SIZE, source == Source.CACHE ? fileSize : 0);
+
+        serverVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        serverVertx.deployVerticle(HttpServerVerticle::new,
+                                   new DeploymentOptions().setConfig(config).setInstances(2),
+                                   ar -> {
+                                       if (ar.succeeded()) deployed.complete(ar.result());
+                                       else deployed.completeExceptionally(ar.cause());
+                                   });
+        deployed.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        clientContext = clientVertx.getOrCreateContext();
+        client = clientVertx.createHttpClient(new HttpClientOptions()
+                                                  .setDefaultHost("localhost")
+                                                  .setDefaultPort(PORT)
+                                                  .setKeepAlive(true)
+                                                  .setTcpNoDelay(true)
+                                                  .setMaxPoolSize(CONCURRENCY));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        clientVertx.close();
+        serverVertx.close();
+
+        Files.delete(root.resolve("file.bin"));
+        Files.delete(root);
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(CONCURRENCY)
+    public void get() throws Exception {
+        CountDownLatch latch = new CountDownLatch(CONCURRENCY);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        clientContext.runOnContext(v -> {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                client.get("/static/file.bin", response -> {
+                    if (response.statusCode() != 200) {
+                        failure.set(new IllegalStateException("Status " + response.statusCode()));
+                    }
+                    response.handler(chunk -> {})
+                            .endHandler(end -> latch.countDown());
+                }).exceptionHandler(ex -> {
+                    failure.set(ex);
+                    latch.countDown();
+                }).end();
+            }
+        });
+
+        if (!latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for " + CONCURRENCY + " responses");
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.manikanta.benchmark;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+
+import com.manikanta.tls.SelfSignedCertificates;
+import com.manikanta.tls.ServerTls;
+import com.manikanta.tls.TlsOptions;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TLS handshakes per second of the server engines, on in-memory engine pairs (no sockets, no event loop):
+ * the CPU a server spends per new connection.
+ * <ul>
+ * <li><code>engine</code>: server engine, JDK or OpenSSL (BoringSSL); the client is always the JDK one</li>
+ * <li><code>keyType</code>: self-signed certificate generated for the trial, RSA 2048 or EC P-256</li>
+ * <li><code>resumption</code>: false, full handshakes; true, the client resumes the session of the
+ * previous handshake (abbreviated handshake, no key exchange nor certificate)</li>
+ * </ul>
+ * TLS 1.2 with the {@link TlsOptions#DEFAULT_CIPHER_SUITES}: the version both engines support here.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class TlsHandshakeBenchmark {
+
+    private static final String PROTOCOL = "TLSv1.2";
+    private static final int PEER_PORT = 443;
+    private static final int MAX_ROUND_TRIPS = 16;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    public enum Engine {
+        JDK,
+        OPENSSL
+    }
+
+    public enum KeyType {
+        RSA,
+        EC
+    }
+
+    @Param
+    public Engine engine;
+
+    @Param
+    public KeyType keyType;
+
+    @Param({"false", "true"})
+    public boolean resumption;
+
+    private SslContext serverContext;
+    private SslContext clientContext;
+    private int clientPort; // Sessions are cached per peer; a new one for each full handshake
+    private byte[] lastSessionId = new byte[0];
+
+    private ByteBuffer clientToServer;
+    private ByteBuffer serverToClient;
+    private ByteBuffer clientApp;
+    private ByteBuffer serverApp;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SelfSignedCertificates certificate = keyType == KeyType.RSA
+                                             ? SelfSignedCertificates.create("RSA", 2048)
+                                             : SelfSignedCertificates.create("EC", 256);
+        boolean openSsl = engine == Engine.OPENSSL;
+
+        serverContext = SslContextBuilder.forServer(new File(certificate.certPath()), new File(certificate.keyPath()))
+                                         .sslProvider(openSsl ? SslProvider.OPENSSL : SslProvider.JDK)
+                                         .protocols(PROTOCOL)
+                                         .ciphers(ServerTls.supportedCipherSuites(TlsOptions.DEFAULT_CIPHER_SUITES, openSsl))
+                                         .sessionCacheSize(TlsOptions.DEFAULT_SESSION_CACHE_SIZE)
+                                         .sessionTimeout(TlsOptions.DEFAULT_SESSION_TIMEOUT_SEC)
+                                         .build();
+
+        clientContext = SslContextBuilder.forClient()
+                                         .sslProvider(SslProvider.JDK)
+                                         .protocols(PROTOCOL)
+                                         .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                                         .build();
+
+        // Large enough for any TLS record
+        clientToServer = ByteBuffer.allocate(64 * 1024);
+        serverToClient = ByteBuffer.allocate(64 * 1024);
+        clientApp = ByteBuffer.allocate(64 * 1024);
+        serverApp = ByteBuffer.allocate(64 * 1024);
+
+        // The session the resumed handshakes reuse
+        handshake(PEER_PORT);
+        if (handshake() != resumption) {
+            throw new IllegalStateException(resumption ? "Session not resumed" : "Session resumed");
+        }
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean handshake() throws Exception {
+        // A peer the client has no session for makes a full handshake
+        return handshake(resumption ? PEER_PORT : PEER_PORT + ++clientPort);
+    }
+
+
+    /**
+     * One handshake, returns whether the session was resumed.
+     */
+    private boolean handshake(int peerPort) throws SSLException {
+        SSLEngine client = clientContext.newEngine(ByteBufAllocator.DEFAULT, "localhost", peerPort);
+        SSLEngine server = serverContext.newEngine(ByteBufAllocator.DEFAULT);
+        try {
+            clientToServer.clear();
+            serverToClient.clear();
+
+            client.beginHandshake();
+            server.beginHandshake();
+            for (int i = 0; !done(client) || !done(server); i++) {
+                if (i == MAX_ROUND_TRIPS) {
+                    throw new IllegalStateException("Handshake not done after " + i + " round trips");
+                }
+                transfer(client, clientToServer, server, serverApp);
+                transfer(server, serverToClient, client, clientApp);
+            }
+
+            byte[] sessionId = client.getSession().getId();
+            boolean resumed = Arrays.equals(sessionId, lastSessionId);
+            lastSessionId = sessionId;
+            return resumed;
+        } finally {
+            ReferenceCountUtil.release(server);
+            ReferenceCountUtil.release(client);
+        }
+    }
+
+    // Wraps the handshake records of one side and unwraps them on the other. Statuses aren't relied on to
+    // know what to do next: the engines disagree on them (e.g. OpenSSL's during an abbreviated handshake)
+    private static void transfer(SSLEngine from, ByteBuffer network, SSLEngine to, ByteBuffer app) throws SSLException {
+        SSLEngineResult result;
+        do {
+            result = from.wrap(EMPTY, network);
+            runTasks(from);
+        } while (result.bytesProduced() > 0);
+
+        network.flip();
+        while (network.hasRemaining()) {
+            app.clear();
+            result = to.unwrap(network, app);
+            runTasks(to);
+            if (result.bytesConsumed() == 0) {
+                break;
+            }
+        }
+        network.compact();
+    }
+
+    private static void runTasks(SSLEngine engine) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private static boolean done(SSLEngine engine) {
+        SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+        return status == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING
+            || status == SSLEngineResult.HandshakeStatus.FINISHED;
+    }
+}
@@ -0,0 +1,137 @@
+package com.manikanta.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.upstream.UpstreamClient;
+import com.manikanta.upstream.UpstreamClients;
+import com.manikanta.upstream.UpstreamOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Upstream client against a local stub upstream (fixed 1KB response, own Vertx instance), requests/sec with
+ * {@link #BATCH} requests in flight, per <code>client</code>:
+ * <ul>
+ * <li><code>THROWAWAY</code>: one client (and connection) per request, as in <code>HttpClientExample</code></li>
+ * <li>one long-lived {@link UpstreamClient}: HTTP/1.1 with 8 connections (<code>HTTP_1_1</code>), plus
+ * pipelining (<code>HTTP_1_1_PIPELINED</code>) and HTTP/2 with one multiplexed connection (<code>HTTP_2</code>)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UpstreamClientBenchmark {
+
+    static final int BATCH = 100;
+
+    private static final int PORT = 9981;
+
+    @Param({"THROWAWAY", "HTTP_1_1", "HTTP_1_1_PIPELINED", "HTTP_2"})
+    public String client;
+
+    private Vertx upstreamVertx;
+    private Vertx vertx;
+    private Context context;
+    private UpstreamClients upstreams;
+    private UpstreamClient upstream;
+    private volatile CountDownLatch responses;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        upstreamVertx = Vertx.vertx();
+
+        String body = new String(new char[1024]).replace('\0', 'x');
+        CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+        upstreamVertx.createHttpServer(new HttpServerOptions().setTcpNoDelay(true))
+                     .requestHandler(req -> req.response().end(body))
+                     .listen(PORT, ar -> {
+                         if (ar.succeeded()) listening.complete(ar.result());
+                         else listening.completeExceptionally(ar.cause());
+                     });
+        listening.get(10, TimeUnit.SECONDS);
+
+        UpstreamOptions options = new UpstreamOptions()
+            .setHost("localhost")
+            .setPort(PORT)
+            .setMaxPoolSize(8)
+            .setPipeliningLimit(client.equals("HTTP_1_1_PIPELINED") ? 16 : 1)
+            .setHttp2MaxPoolSize(1)
+            .setHttp2MultiplexingLimit(BATCH)
+            .setProtocol(client.equals("HTTP_2") ? HttpVersion.HTTP_2 : HttpVersion.HTTP_1_1);
+
+        vertx = Vertx.vertx();
+        context = vertx.getOrCreateContext(); // The client's "verticle"
+        upstreams = new UpstreamClients(vertx, new JsonObject());
+        upstream = upstreams.client("stub", options);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        upstreams.close();
+        vertx.close();
+        upstreamVertx.close();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void request() throws Exception {
+        responses = new CountDownLatch(BATCH);
+
+        context.runOnContext(v -> {
+            for (int i = 0; i < BATCH; i++) {
+                if (client.equals("THROWAWAY")) {
+                    throwawayRequest();
+                } else {
+                    upstream.get("/").setHandler(ar -> completed(ar.succeeded()));
+                }
+            }
+        });
+
+        if (!responses.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the responses");
+        }
+    }
+
+    private void throwawayRequest() {
+        HttpClient throwaway = vertx.createHttpClient(new HttpClientOptions().setKeepAlive(false));
+        throwaway.get(PORT, "localhost", "/", response -> response.bodyHandler(body -> {
+            throwaway.close();
+            completed(response.statusCode() == 200);
+        })).exceptionHandler(failure -> completed(false))
+                 .end();
+    }
+
+    private void completed(boolean succeeded) {
+        if (!succeeded) {
+            throw new IllegalStateException("Request failed");
+        }
+        responses.countDown();
+    }
+}
@@ -0,0 +1,304 @@
+package com.manikanta;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event loop lag probe.
+ * <p>
+ * A task is scheduled on every event loop each <code>interval</code>; the delay between the time it was due
+ * and the time it actually ran is the loop lag (time spent by the loop on other tasks, or blocked).
+ * It is recorded per loop as the <code>vertx_eventloop_lag</code> histogram.
+ * <p>
+ * A watchdog thread (like Vert.x's BlockedThreadChecker) checks the pending probes; when one is overdue by
+ * more than the blocked threshold, the loop is considered blocked: <code>vertx_eventloop_blocked</code> is
+ * incremented and the loop thread stack is captured, so it can be fetched later from
+ * {@link #DIAGNOSTICS_PATH} instead of digging it out of the logs.
+ * <p>
+ * Opt-in (<code>eventLoopProbeIntervalMs</code>). The diagnostics expose thread stacks, so they are served on
+ * a separate port, bound to the loopback interface by default, never on the public server port.
+ * <p>
+ * One probe per Vertx, shared by the verticle instances; each one {@link #release()}s it on undeploy, the
+ * last one stops the watchdog.
+ */
+public final class EventLoopProbe implements Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventLoopProbe.class);
+
+    public static final String DIAGNOSTICS_PATH = "/diagnostics/event-loops";
+
+    private static final String SHARED_MAP = EventLoopProbe.class.getName();
+
+    private final long intervalNanos;
+    private final long blockedThresholdNanos;
+    private final List<Loop> loops = new ArrayList<>();
+    private final Timer watchdog = new Timer("vertx-eventloop-probe", true);
+    private final LocalMap<String, EventLoopProbe> shared;
+    private int users; // Guarded by the class lock
+
+
+    private EventLoopProbe(Vertx vertx, long intervalMs, long blockedThresholdMs, LocalMap<String, EventLoopProbe> shared) {
+        this.shared = shared;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.blockedThresholdNanos = TimeUnit.MILLISECONDS.toNanos(blockedThresholdMs);
+
+        MeterRegistry registry = ServerMetrics.registry();
+
+        int index = 0;
+        for (EventExecutor executor : ((VertxInternal) vertx).getEventLoopGroup()) {
+            loops.add(new Loop(index++, executor, registry));
+        }
+    }
+
+
+    /**
+     * Returns the probe of the given Vertx instance, starting it on first call (all the verticle instances
+     * share one probe, to be {@link #release()}d). Returns <code>null</code> when the probe is disabled by config.
+     */
+    public static EventLoopProbe getOrStart(Vertx vertx, JsonObject config) {
+        long interval = config.getLong(ServerConfig.EVENT_LOOP_PROBE_INTERVAL_MS,
+                                       ServerConfig.DEFAULT_EVENT_LOOP_PROBE_INTERVAL_MS);
+        if (interval <= 0) {
+            return null;
+        }
+
+        // Locked rather than putIfAbsent: a single watchdog, started once
+        synchronized (EventLoopProbe.class) {
+            LocalMap<String, EventLoopProbe> probes = vertx.sharedData().getLocalMap(SHARED_MAP);
+            EventLoopProbe probe = probes.get(SHARED_MAP);
+            if (probe == null) {
+                long blockedThreshold = config.getLong(ServerConfig.EVENT_LOOP_BLOCKED_THRESHOLD_MS,
+                                                       ServerConfig.DEFAULT_EVENT_LOOP_BLOCKED_THRESHOLD_MS);
+                probe = new EventLoopProbe(vertx, interval, blockedThreshold, probes);
+                probe.start(interval);
+                probes.put(SHARED_MAP, probe);
+            }
+            probe.users++;
+            return probe;
+        }
+    }
+
+    /**
+     * Returns the running probe of the given Vertx instance, <code>null</code> when there is none.
+     */
+    public static EventLoopProbe get(Vertx vertx) {
+        LocalMap<String, EventLoopProbe> probes = vertx.sharedData().getLocalMap(SHARED_MAP);
+        return probes.get(SHARED_MAP);
+    }
+
+    /**
+     * Releases the probe; the last user stops it.
+     */
+    public void release() {
+        synchronized (EventLoopProbe.class) {
+            if (--users > 0) {
+                return;
+            }
+            shared.remove(SHARED_MAP); // A redeployment starts a new one
+        }
+        stop();
+    }
+
+    /**
+     * Serves {@link #DIAGNOSTICS_PATH} on the diagnostics port (<code>diagnosticsPort</code>, on
+     * <code>diagnosticsHost</code>), for the probe running at request time.
+     */
+    public static Future<HttpServer> serveDiagnostics(Vertx vertx, JsonObject config) {
+        int port = config.getInteger(ServerConfig.DIAGNOSTICS_PORT, ServerConfig.DEFAULT_DIAGNOSTICS_PORT);
+        String host = config.getString(ServerConfig.DIAGNOSTICS_HOST, ServerConfig.DEFAULT_DIAGNOSTICS_HOST);
+
+        Future<HttpServer> listening = Future.future();
+        vertx.createHttpServer()
+             .requestHandler(request -> {
+                 EventLoopProbe probe = get(vertx);
+                 if (probe == null || !DIAGNOSTICS_PATH.equals(request.path())) {
+                     request.response().setStatusCode(404).end();
+                 } else {
+                     probe.handleDiagnostics(request);
+                 }
+             })
+             .listen(port, host, ar -> {
+                 if (ar.succeeded()) {
+                     LOG.info("Event loop diagnostics on http://{}:{}{}", host, port, DIAGNOSTICS_PATH);
+                 }
+                 listening.handle(ar);
+             });
+        return listening;
+    }
+
+    private void start(long intervalMs) {
+        loops.forEach(Loop::schedule);
+        watchdog.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                long now = System.nanoTime();
+                loops.forEach(loop -> loop.check(now));
+
+                if (loops.stream().allMatch(loop -> loop.stopped)) {
+                    watchdog.cancel(); // Vertx closed
+                }
+            }
+        }, intervalMs, intervalMs);
+
+        LOG.info("Event loop probe started on {} loops (interval {}ms, blocked threshold {}ms)",
+                 loops.size(),
+                 intervalMs,
+                 TimeUnit.NANOSECONDS.toMillis(blockedThresholdNanos));
+    }
+
+    public void stop() {
+        watchdog.cancel();
+        loops.forEach(loop -> loop.stopped = true);
+    }
+
+
+    public JsonObject snapshot() {
+        long now = System.nanoTime();
+
+        JsonArray loopsJson = new JsonArray();
+        loops.forEach(loop -> loopsJson.add(loop.toJson(now)));
+
+        return new JsonObject().put("loops", loopsJson);
+    }
+
+    public void handleDiagnostics(HttpServerRequest request) {
+        request.response()
+               .putHeader("content-type", "application/json")
+               .end(snapshot().encodePrettily());
+    }
+
+
+    private final class Loop {
+
+        private final int index;
+        private final EventExecutor executor;
+        private final io.micrometer.core.instrument.Timer lag;
+        private final Counter blocked;
+
+        private volatile Thread thread;
+        private volatile long dueAt;
+        private volatile boolean blockedReported;
+        private volatile boolean stopped;
+
+        // Kept apart from the meters, which are no-ops when metrics are disabled
+        private volatile long lastLagNanos;
+        private volatile long blockedCount; // Only written by the watchdog thread
+        private volatile StackTraceElement[] lastBlockedStack;
+        private volatile long lastBlockedAt;
+
+
+        private Loop(int index, EventExecutor executor, MeterRegistry registry) {
+            this.index = index;
+            this.executor = executor;
+
+            String loop = String.valueOf(index);
+            this.lag = io.micrometer.core.instrument.Timer.builder("vertx_eventloop_lag")
+                                                         .description("Delay between the due and the actual run time of the lag probe")
+                                                         .tag("loop", loop)
+                                                         .publishPercentileHistogram()
+                                                         .register(registry);
+            this.blocked = Counter.builder("vertx_eventloop_blocked")
+                                  .description("Number of times the event loop was blocked longer than the threshold")
+                                  .tag("loop", loop)
+                                  .register(registry);
+        }
+
+
+        private void schedule() {
+            if (stopped) {
+                return;
+            }
+
+            dueAt = System.nanoTime() + intervalNanos;
+            try {
+                executor.schedule(this::run, intervalNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                stopped = true; // Vertx is closing
+            }
+        }
+
+        // On the event loop
+        private void run() {
+            thread = Thread.currentThread();
+            lastLagNanos = Math.max(0, System.nanoTime() - dueAt);
+            lag.record(lastLagNanos, TimeUnit.NANOSECONDS);
+            blockedReported = false;
+            schedule();
+        }
+
+        // On the watchdog thread
+        private void check(long now) {
+            if (executor.isShuttingDown()) {
+                stopped = true;
+            }
+
+            Thread loopThread = thread;
+            if (stopped || blockedReported || loopThread == null || now - dueAt < blockedThresholdNanos) {
+                return;
+            }
+
+            blockedReported = true;
+            blocked.increment();
+            blockedCount++;
+            lastBlockedStack = loopThread.getStackTrace();
+            lastBlockedAt = System.currentTimeMillis();
+        }
+
+        private JsonObject toJson(long now) {
+            Thread loopThread = thread;
+            long overdue = Math.max(0, now - dueAt);
+            // When called from the loop itself, the loop is obviously not blocked (the probe just didn't run yet)
+            boolean blockedNow = loopThread != null
+                && loopThread != Thread.currentThread()
+                && overdue >= blockedThresholdNanos;
+
+            JsonObject json = new JsonObject()
+                .put("loop", index)
+                .put("thread", loopThread != null ? loopThread.getName() : null)
+                .put("currentLagMs", TimeUnit.NANOSECONDS.toMillis(overdue))
+                .put("lastLagMs", TimeUnit.NANOSECONDS.toMillis(lastLagNanos))
+                .put("blocked", blockedNow)
+                .put("blockedCount", blockedCount);
+
+            if (blockedNow) {
+                json.put("stack", toJson(loopThread.getStackTrace()));
+            }
+
+            StackTraceElement[] lastStack = lastBlockedStack;
+            if (lastStack != null) {
+                json.put("lastBlockedAt", Instant.ofEpochMilli(lastBlockedAt).toString())
+                    .put("lastBlockedStack", toJson(lastStack));
+            }
+
+            return json;
+        }
+
+        private JsonArray toJson(StackTraceElement[] stack) {
+            JsonArray frames = new JsonArray();
+            for (StackTraceElement frame : stack) {
+                frames.add(frame.toString());
+            }
+            return frames;
+        }
+    }
+}
@@ -1,10 +1,30 @@
 package com.manikanta;
 
+import java.nio.file.Paths;
+
+import com.manikanta.accesslog.AccessLog;
+import com.manikanta.admission.AdmissionControl;
+import com.manikanta.cluster.ClusterSupport;
+import com.manikanta.compression.CompressionPolicy;
+import com.manikanta.connection.ConnectionManager;
+import com.manikanta.http2.Http2ServerSettings;
+import com.manikanta.proxy.ReverseProxy;
+import com.manikanta.routing.RouteHandler;
+import com.manikanta.routing.TrieRouter;
+import com.manikanta.staticfiles.StaticFiles;
+import com.manikanta.tls.ServerTls;
+import com.manikanta.tls.SessionTicketKeys;
+import com.manikanta.upstream.UpstreamClients;
+import com.manikanta.worker.WorkerPools;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
-import io.vertx.core.net.OpenSSLEngineOptions;
+import io.vertx.core.json.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,53 +32,224 @@ public class HttpServerVerticle extends AbstractVerticle {
 
     private static Logger LOG = LoggerFactory.getLogger(HttpServerVerticle.class);
 
+    // Encoded once, shared by all the instances (see PreEncodedResponse)
+    private static final PreEncodedResponse HELLO_WORLD = PreEncodedResponse.of("text/plain", "Hello world");
+
+    private ServerInstanceStats stats;
+    private EventLoopProbe eventLoopProbe;
+    private UpstreamClients upstreams;
+    private ConnectionManager connections;
+    private AccessLog accessLog;
+    private AdmissionControl admission;
+    private SessionTicketKeys ticketKeys; // Null when none
+
+
+    // Optional first argument: path of the JSON config file (see ServerConfig for the keys)
+    public static void main(String[] args) throws Exception {
+        JsonObject config = ServerConfig.load(args);
+
+        // Native transport (epoll) is required for TCP_CORK, TCP_FASTOPEN & TCP_QUICKACK; Vert.x falls
+        // back to NIO on its own when it is not available (non-Linux, missing native library)
+        boolean nativeTransport = config.getBoolean(ServerConfig.NATIVE_TRANSPORT,
+                                                    ServerConfig.DEFAULT_NATIVE_TRANSPORT);
 
-    public static void main(String[] args) {
-        Vertx vertx = Vertx.vertx();
+        VertxOptions vertxOptions = new VertxOptions()
+            .setPreferNativeTransport(nativeTransport);
+        ServerMetrics.configure(vertxOptions, config);
 
-        vertx.deployVerticle(new HttpServerVerticle(), ar -> {
-            if (ar.succeeded()) LOG.info("Verticle deployed");
-            else LOG.error("Failed to deploy verticle", ar.cause());
+        // Clustered (shared event bus with the other nodes) or standalone, depending on the config
+        ClusterSupport.createVertx(vertxOptions, config, ar -> {
+            if (ar.succeeded()) {
+                deploy(ar.result(), vertxOptions, config);
+            } else {
+                LOG.error("Failed to join the cluster", ar.cause());
+            }
         });
     }
 
+    private static void deploy(Vertx vertx, VertxOptions vertxOptions, JsonObject config) {
+        ServerMetrics.bindEventLoops(vertx);
+
+        boolean nativeTransport = config.getBoolean(ServerConfig.NATIVE_TRANSPORT,
+                                                    ServerConfig.DEFAULT_NATIVE_TRANSPORT);
+        HttpServerOptions serverOptions = prepareHttpServerOptions(config);
+        TransportDiagnostics.report(vertx, nativeTransport, serverOptions);
+        ServerTls.report(serverOptions);
+
+        // One instance per event loop by default; all of them share the same port and
+        // Vert.x round-robins the accepted connections between them
+        int instances = config.getInteger(ServerConfig.INSTANCES, vertxOptions.getEventLoopPoolSize());
+
+        DeploymentOptions deploymentOptions = new DeploymentOptions()
+            .setConfig(config)
+            .setInstances(instances);
+
+        vertx.deployVerticle(HttpServerVerticle::new, deploymentOptions, ar -> {
+            if (ar.succeeded()) {
+                LOG.info("Verticle deployed ({} instances)", instances);
+                startStatsReport(vertx, config);
+                if (EventLoopProbe.get(vertx) != null) {
+                    // Not on the server port: thread stacks aren't for the public
+                    EventLoopProbe.serveDiagnostics(vertx, config).setHandler(listening -> {
+                        if (listening.failed()) {
+                            LOG.error("Failed to serve the event loop diagnostics", listening.cause());
+                        }
+                    });
+                }
+            } else {
+                LOG.error("Failed to deploy verticle", ar.cause());
+            }
+        });
+    }
+
+    private static void startStatsReport(Vertx vertx, JsonObject config) {
+        ServerInstanceStats.report();
+
+        long interval = config.getLong(ServerConfig.STATS_REPORT_INTERVAL_MS,
+                                       ServerConfig.DEFAULT_STATS_REPORT_INTERVAL_MS);
+        if (interval > 0) {
+            vertx.setPeriodic(interval, timerId -> ServerInstanceStats.report());
+        }
+    }
+
 
     @Override
     public void start(Future<Void> startFuture) throws Exception {
-        HttpServerOptions options = prepareHttpServerOptions();
+        CompressionPolicy compression = new CompressionPolicy(config());
+        String staticRoot = config().getString(ServerConfig.STATIC_ROOT);
 
-        vertx.createHttpServer(options)
-             .requestHandler(req -> {
-                 req.response()
-                    .putHeader("content-type", "text/plain")
-                    .end("Hello world");
+        if (staticRoot == null) {
+            start(startFuture, compression, null);
+            return;
+        }
+
+        // The static file cache is warmed up on a worker thread, the server listens once it is done
+        StaticFiles.get(vertx, Paths.get(staticRoot), config(), compression).setHandler(ar -> {
+            if (ar.succeeded()) {
+                start(startFuture, compression, ar.result());
+            } else {
+                LOG.error("Failed to load the static files from {}", staticRoot, ar.cause());
+                startFuture.fail(ar.cause());
+            }
+        });
+    }
+
+    private void start(Future<Void> startFuture, CompressionPolicy compression, StaticFiles staticFiles) {
+        HttpServerOptions options = prepareHttpServerOptions(config());
+        int port = config().getInteger(ServerConfig.PORT, ServerConfig.DEFAULT_PORT);
+
+        stats = ServerInstanceStats.register();
+        accessLog = AccessLog.get(vertx, config().getJsonObject(ServerConfig.ACCESS_LOG));
+        connections = new ConnectionManager(vertx,
+                                            stats.index(),
+                                            config().getInteger(ServerConfig.MAX_CONNECTIONS,
+                                                                ConnectionManager.DEFAULT_MAX_CONNECTIONS),
+                                            accessLog);
+        eventLoopProbe = EventLoopProbe.getOrStart(vertx, config());
+        WorkerPools.get(vertx).configure(config().getJsonObject(ServerConfig.WORKER_POOLS, new JsonObject()));
+
+        // Anything not routed gets the hello world response (too small to be worth compressing by default)
+        PreEncodedResponse helloWorld = HELLO_WORLD.withPolicy(compression);
+        TrieRouter.Builder routes = TrieRouter.builder()
+                                              .notFound((req, params) -> helloWorld.send(req.response()));
+
+        if (staticFiles != null) {
+            String staticPath = TrieRouter.normalize(config().getString(ServerConfig.STATIC_PATH,
+                                                                        ServerConfig.DEFAULT_STATIC_PATH));
+            // Sliced from the path the router matched ("//static/app.js" is "/static/app.js")
+            RouteHandler handler = (req, params) ->
+                staticFiles.handle(req, TrieRouter.normalize(req.path()).substring(staticPath.length()));
+            routes.route(HttpMethod.GET, staticPath + "/*", handler)
+                  .route(HttpMethod.HEAD, staticPath + "/*", handler);
+        }
+
+        // Proxy mode: requests matching a proxy route are forwarded to its upstream
+        upstreams = new UpstreamClients(vertx, config().getJsonObject(ServerConfig.UPSTREAMS, new JsonObject()));
+        JsonObject proxyRoutes = config().getJsonObject(ServerConfig.PROXY);
+        if (proxyRoutes != null) {
+            new ReverseProxy(upstreams, proxyRoutes).addRoutes(routes);
+        }
+
+        TrieRouter router = routes.build();
+
+        // Requests over the rate / concurrency limits are answered before routing
+        admission = AdmissionControl.get(vertx, config().getJsonObject(ServerConfig.ADMISSION));
+
+        HttpServer server = vertx.createHttpServer(options)
+             .connectionHandler(connection -> {
+                 if (connections.accept(connection)) {
+                     stats.connectionAccepted();
+                 }
              })
-             .listen(9999, ar -> {
-                 if (ar.succeeded()) {
-                     startFuture.complete();
-                     LOG.info("HTTP server started on port 9999");
-                 } else {
-                     LOG.error("Deployment failed", ar.cause());
-                     startFuture.fail(ar.cause());
+             .requestHandler(req -> {
+                 stats.requestReceived();
+                 ConnectionManager.Exchange exchange = connections.requestReceived(req);
+                 if (exchange != null && (admission == null || admission.admit(req, exchange))) {
+                     router.handle(req);
                  }
              });
+
+        // TLS session cache and ticket keys (loaded from files, off the event loop)
+        ServerTls.configureSessions(vertx, server, options, config())
+                 .compose(keys -> {
+                     ticketKeys = keys;
+                     Future<HttpServer> listening = Future.future();
+                     server.listen(port, listening);
+                     return listening;
+                 })
+                 .setHandler(ar -> {
+                     if (ar.succeeded()) {
+                         startFuture.complete();
+                         LOG.info("HTTP server started on port {}", port);
+                     } else {
+                         LOG.error("Deployment failed", ar.cause());
+                         if (ticketKeys != null) {
+                             ticketKeys.release(); // Not stopped when it failed to start
+                         }
+                         startFuture.fail(ar.cause());
+                     }
+                 });
     }
 
 
-    private HttpServerOptions prepareHttpServerOptions() {
-        return new HttpServerOptions()
-            // HTTP/2
-//            .setUseAlpn(true) // h2 mode (HTTP/2 over secure socket); well supported and recommended
-            .setUseAlpn(false) // h2c mode (HTTP/2 over plain socket); not supported well and not recommended
+    // Undeploy (rolling restart): the requests in flight are given drainTimeoutMs to complete before
+    // Vert.x closes the server
+    @Override
+    public void stop(Future<Void> stopFuture) {
+        long timeout = config().getLong(ServerConfig.DRAIN_TIMEOUT_MS, ConnectionManager.DEFAULT_DRAIN_TIMEOUT_MS);
 
-            // Using BoringSSL (Google's fork of OpenSSL) instead of JDK for better performance
-            .setOpenSslEngineOptions(new OpenSSLEngineOptions())
+        if (eventLoopProbe != null) {
+            eventLoopProbe.release();
+        }
 
+        connections.drain(timeout, ar -> {
+            connections.close();
+            stats.unregister();
+            upstreams.close();
+            if (accessLog != null) {
+                accessLog.release(); // Once the drained responses are logged
+            }
+            if (admission != null) {
+                admission.release();
+            }
+            if (ticketKeys != null) {
+                ticketKeys.release();
+            }
+            stopFuture.complete();
+        });
+    }
+
+
+    static HttpServerOptions prepareHttpServerOptions(JsonObject config) {
+        CompressionPolicy compression = new CompressionPolicy(config);
+
+        HttpServerOptions options = new HttpServerOptions()
 //            .setLogActivity(true) // network activity only for debugging purposes; use setCompressionSupported(false)
-            .setCompressionSupported(true)
+            .setCompressionSupported(compression.enabled())
+            .setCompressionLevel(compression.level()) // Responses below the size threshold opt out, see CompressionPolicy
 
             // TCP tuning
-            .setTcpCork(true)
+            .setTcpCork(config.getBoolean(ServerConfig.TCP_CORK, ServerConfig.DEFAULT_TCP_CORK))
             .setTcpFastOpen(true)
             .setTcpNoDelay(true)
             .setTcpQuickAck(true)
@@ -66,13 +257,15 @@ public class HttpServerVerticle extends AbstractVerticle {
 
             // Other
             // Close keep-alive connections after an idle time
-            .setIdleTimeout(10)
+            .setIdleTimeout(config.getInteger(ServerConfig.IDLE_TIMEOUT_SEC, ServerConfig.DEFAULT_IDLE_TIMEOUT_SEC))
 
-            // SSL, Auth
-//            .setSsl(true) // Required for HTTP/2
-//            .setKeyStoreOptions(new JksOptions().setPath("keystore-location"))
+            // Auth
 //            .setClientAuth(ClientAuth.REQUIRED)
             ;
+
+        // TLS (h2 with ALPN) or clear text (h2c), and the HTTP/2 settings sent to the clients
+        ServerTls.apply(options, config);
+        return Http2ServerSettings.apply(options, config);
     }
 
 }
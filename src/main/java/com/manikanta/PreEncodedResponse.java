@@ -0,0 +1,96 @@
+package com.manikanta;
+
+import java.nio.charset.StandardCharsets;
+
+import com.manikanta.compression.CompressionPolicy;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Fixed response (body + headers) encoded once and shared by all the requests & event loops.
+ * <p>
+ * <code>response.putHeader("content-type", "text/plain").end("Hello world")</code> encodes the body
+ * String into a new buffer, converts the header name/value and formats the Content-Length on every
+ * request. Here all of them are done once:
+ * <ul>
+ * <li>header names/values are {@link AsciiString}s, which Netty writes out as raw bytes</li>
+ * <li>Content-Length is set upfront, so Vert.x doesn't compute it on <code>end()</code></li>
+ * <li>body is a read-only, direct and unreleasable buffer: direct avoids the heap to direct copy on the
+ * socket write, unreleasable keeps Netty from freeing it after the first write</li>
+ * </ul>
+ * The compression decision can be made once as well, see {@link #withPolicy(CompressionPolicy)}.
+ */
+public final class PreEncodedResponse {
+
+    private final int statusCode;
+    private final CharSequence contentType;
+    private final CharSequence contentLength;
+    private final Buffer body;
+    private final boolean uncompressed; // Sent with Content-Encoding: identity, out of the server compressor
+
+
+    private PreEncodedResponse(int statusCode, String contentType, byte[] body) {
+        ByteBuf content = Unpooled.directBuffer(body.length)
+                                  .writeBytes(body)
+                                  .asReadOnly();
+
+        this.statusCode = statusCode;
+        this.contentType = HttpHeaders.createOptimized(contentType);
+        this.contentLength = HttpHeaders.createOptimized(String.valueOf(body.length));
+        this.body = Buffer.buffer(Unpooled.unreleasableBuffer(content));
+        this.uncompressed = false;
+    }
+
+    private PreEncodedResponse(PreEncodedResponse response, boolean uncompressed) {
+        this.statusCode = response.statusCode;
+        this.contentType = response.contentType;
+        this.contentLength = response.contentLength;
+        this.body = response.body;
+        this.uncompressed = uncompressed;
+    }
+
+
+    public static PreEncodedResponse of(String contentType, String body) {
+        return of(200, contentType, body);
+    }
+
+    public static PreEncodedResponse of(int statusCode, String contentType, String body) {
+        return new PreEncodedResponse(statusCode, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PreEncodedResponse of(int statusCode, String contentType, byte[] body) {
+        return new PreEncodedResponse(statusCode, contentType, body.clone());
+    }
+
+
+    /**
+     * Same response, kept out of the server compressor when the policy says it isn't worth compressing.
+     */
+    public PreEncodedResponse withPolicy(CompressionPolicy policy) {
+        boolean compress = policy.shouldCompress(contentType.toString(), body.length());
+        return new PreEncodedResponse(this, policy.enabled() && !compress);
+    }
+
+
+    public void send(HttpServerResponse response) {
+        MultiMap headers = response.headers();
+        headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+        headers.set(HttpHeaders.CONTENT_LENGTH, contentLength);
+        if (uncompressed) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+        }
+
+        // Buffer.getByteBuf() hands out a duplicate (index copy only), so the content is never copied
+        response.setStatusCode(statusCode)
+                .end(body);
+    }
+
+    public int length() {
+        return body.length();
+    }
+}
@@ -0,0 +1,119 @@
+package com.manikanta;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Config keys (and defaults) understood by {@link HttpServerVerticle}.
+ * <p>
+ * The same JSON is used both by {@link HttpServerVerticle#main(String[])} (file path as first argument)
+ * and by the Vert.x Launcher (<code>-conf</code> option), so the keys are kept in one place.
+ */
+public final class ServerConfig {
+
+    public static final String PORT = "port";
+    public static final int DEFAULT_PORT = 9999;
+
+    // Prefer native (epoll) transport over NIO; falls back to NIO when unavailable
+    public static final String NATIVE_TRANSPORT = "nativeTransport";
+    public static final boolean DEFAULT_NATIVE_TRANSPORT = true;
+
+    // TCP_CORK (native transport only) holds partial segments for up to 200ms; it helps bulk writers,
+    // but a request/response server ends up waiting on it for every small response
+    public static final String TCP_CORK = "tcpCork";
+    public static final boolean DEFAULT_TCP_CORK = false;
+
+    // HTTP response compression (gzip/deflate, when accepted by the client), see CompressionPolicy for the
+    // level (1-9), the minimum body size and the content types (list, "type/*" wildcards allowed) compressed
+    public static final String COMPRESSION = "compression";
+    public static final boolean DEFAULT_COMPRESSION = true;
+    public static final String COMPRESSION_LEVEL = "compressionLevel";
+    public static final String COMPRESSION_MIN_SIZE = "compressionMinSize";
+    public static final String COMPRESSION_MIME_TYPES = "compressionMimeTypes";
+
+    // Static files from staticRoot (directory) served under staticPath, see StaticFiles: files up to
+    // staticCacheMaxFileSize are kept in a staticCacheSize bytes cache, revalidated every staticCacheRevalidateMs
+    public static final String STATIC_ROOT = "staticRoot";
+    public static final String STATIC_PATH = "staticPath";
+    public static final String DEFAULT_STATIC_PATH = "/static";
+    public static final String STATIC_CACHE_SIZE = "staticCacheSize";
+    public static final String STATIC_CACHE_MAX_FILE_SIZE = "staticCacheMaxFileSize";
+    public static final String STATIC_CACHE_REVALIDATE_MS = "staticCacheRevalidateMs";
+
+    // TLS (certificate & key, see ServerTls) and HTTP/2 settings (see Http2ServerSettings)
+    public static final String TLS = "tls";
+    public static final String HTTP2 = "http2";
+
+    // Connections: limit per server instance, idle timeout, and the time given to the requests in flight
+    // to complete when the verticle is undeployed (see ConnectionManager)
+    public static final String MAX_CONNECTIONS = "maxConnections";
+    public static final String IDLE_TIMEOUT_SEC = "idleTimeoutSec";
+    public static final int DEFAULT_IDLE_TIMEOUT_SEC = 10;
+    public static final String DRAIN_TIMEOUT_MS = "drainTimeoutMs";
+
+    // Micrometer metrics, scraped by Prometheus from http://host:metricsPort/metrics
+    public static final String METRICS = "metrics";
+    public static final boolean DEFAULT_METRICS = false;
+    public static final String METRICS_PORT = "metricsPort";
+    public static final int DEFAULT_METRICS_PORT = 9991;
+
+    // Event loop lag probe interval (0, the default, disables it) and the lag after which a loop is reported
+    // as blocked; its diagnostics (thread stacks) are served on diagnosticsHost:diagnosticsPort, loopback only
+    // by default
+    public static final String EVENT_LOOP_PROBE_INTERVAL_MS = "eventLoopProbeIntervalMs";
+    public static final long DEFAULT_EVENT_LOOP_PROBE_INTERVAL_MS = 0;
+    public static final String EVENT_LOOP_BLOCKED_THRESHOLD_MS = "eventLoopBlockedThresholdMs";
+    public static final long DEFAULT_EVENT_LOOP_BLOCKED_THRESHOLD_MS = 2_000;
+    public static final String DIAGNOSTICS_PORT = "diagnosticsPort";
+    public static final int DEFAULT_DIAGNOSTICS_PORT = 9992;
+    public static final String DIAGNOSTICS_HOST = "diagnosticsHost";
+    public static final String DEFAULT_DIAGNOSTICS_HOST = "127.0.0.1";
+
+    // Bounded worker pools, name -> options (see WorkerPools)
+    public static final String WORKER_POOLS = "workerPools";
+
+    // Admission control before routing: per client / per route rate limits and adaptive concurrency limit
+    // (see AdmissionOptions); everything is admitted when absent
+    public static final String ADMISSION = "admission";
+
+    // Access log, written off the event loops (see AccessLogOptions); no access log when absent
+    public static final String ACCESS_LOG = "accessLog";
+
+    // Upstreams (name -> UpstreamOptions) and reverse proxy routes (path prefix -> upstream name)
+    public static final String UPSTREAMS = "upstreams";
+    public static final String PROXY = "proxy";
+
+    // Clustered event bus (Hazelcast, TCP/IP discovery of the members, loopback by default)
+    public static final String CLUSTER = "cluster";
+    public static final boolean DEFAULT_CLUSTER = false;
+    public static final String CLUSTER_HOST = "clusterHost";
+    public static final String DEFAULT_CLUSTER_HOST = "127.0.0.1";
+    public static final String CLUSTER_PORT = "clusterPort";
+    public static final int DEFAULT_CLUSTER_PORT = 5701;
+    public static final String CLUSTER_MEMBERS = "clusterMembers"; // Hosts, defaults to clusterHost
+
+    // Number of HttpServerVerticle instances; defaults to the event loop pool size (2 * cores)
+    public static final String INSTANCES = "instances";
+
+    // Interval of the per-instance accept/request report; 0 disables it
+    public static final String STATS_REPORT_INTERVAL_MS = "statsReportIntervalMs";
+    public static final long DEFAULT_STATS_REPORT_INTERVAL_MS = 10_000;
+
+
+    private ServerConfig() {
+    }
+
+
+    static JsonObject load(String[] args) throws IOException {
+        if (args.length == 0) {
+            return new JsonObject();
+        }
+
+        byte[] content = Files.readAllBytes(Paths.get(args[0]));
+        return new JsonObject(new String(content, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package com.manikanta;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accepted connection & request counters of a single {@link HttpServerVerticle} instance.
+ * <p>
+ * Vert.x round-robins the accepted connections of a shared port across the deployed instances,
+ * so comparing these counters tells whether the load is really spread over all the event loops.
+ * <p>
+ * Registered when an instance starts, unregistered when it stops; indexes are not reused, so a redeployed
+ * instance can't be mistaken for the one it replaces.
+ */
+public class ServerInstanceStats {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerInstanceStats.class);
+
+    private static final List<ServerInstanceStats> INSTANCES = new CopyOnWriteArrayList<>();
+    private static int nextIndex; // Guarded by the class lock
+
+    private final int index;
+    private final String eventLoop;
+
+    // Only incremented from the owning event loop, but read from the reporting one
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+
+    private ServerInstanceStats(int index, String eventLoop) {
+        this.index = index;
+        this.eventLoop = eventLoop;
+    }
+
+
+    static synchronized ServerInstanceStats register() {
+        ServerInstanceStats stats = new ServerInstanceStats(nextIndex++, Thread.currentThread().getName());
+        INSTANCES.add(stats);
+        return stats;
+    }
+
+    void unregister() {
+        INSTANCES.remove(this);
+    }
+
+    static List<ServerInstanceStats> all() {
+        return INSTANCES;
+    }
+
+    static void report() {
+        long totalConnections = 0;
+        long totalRequests = 0;
+
+        for (ServerInstanceStats stats : INSTANCES) {
+            totalConnections += stats.acceptedConnections();
+            totalRequests += stats.requests();
+        }
+
+        LOG.info("{} instance(s): {} connections, {} requests", INSTANCES.size(), totalConnections, totalRequests);
+
+        for (ServerInstanceStats stats : INSTANCES) {
+            LOG.info("\tinstance-{} [{}]: {} connections, {} requests",
+                     stats.index,
+                     stats.eventLoop,
+                     stats.acceptedConnections(),
+                     stats.requests());
+        }
+    }
+
+
+    void connectionAccepted() {
+        acceptedConnections.incrementAndGet();
+    }
+
+    void requestReceived() {
+        requests.incrementAndGet();
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public String eventLoop() {
+        return eventLoop;
+    }
+
+    public long acceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+}
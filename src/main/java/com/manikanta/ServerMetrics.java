@@ -0,0 +1,103 @@
+package com.manikanta;
+
+import java.util.EnumSet;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.Label;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Micrometer metrics with a Prometheus scraping endpoint on a separate port.
+ * <p>
+ * Vert.x itself reports the HTTP server (request latency histogram, active connections & requests),
+ * event bus (message rates per address) and worker pools (queue size & delay); the event loop task
+ * queues are added here as gauges.
+ * <p>
+ * Labels are limited to bounded sets: no request path, no remote/local address (one series per client),
+ * and the event bus reply addresses (<code>__vertx.reply.N</code>) are ignored by Vert.x already.
+ * <p>
+ * Components can always register their meters on {@link #registry()}: when metrics are disabled it is an
+ * empty composite registry, whose meters are no-ops.
+ */
+public final class ServerMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerMetrics.class);
+
+    private static final MeterRegistry NOOP_REGISTRY = new CompositeMeterRegistry();
+
+
+    private ServerMetrics() {
+    }
+
+
+    static VertxOptions configure(VertxOptions vertxOptions, JsonObject config) {
+        if (!config.getBoolean(ServerConfig.METRICS, ServerConfig.DEFAULT_METRICS)) {
+            return vertxOptions;
+        }
+
+        int port = config.getInteger(ServerConfig.METRICS_PORT, ServerConfig.DEFAULT_METRICS_PORT);
+
+        VertxPrometheusOptions prometheusOptions = new VertxPrometheusOptions()
+            .setEnabled(true)
+            .setPublishQuantiles(true) // Histogram buckets, so latency percentiles can be aggregated
+            .setStartEmbeddedServer(true)
+            .setEmbeddedServerOptions(new HttpServerOptions().setPort(port))
+            .setEmbeddedServerEndpoint("/metrics");
+
+        MicrometerMetricsOptions metricsOptions = new MicrometerMetricsOptions()
+            .setEnabled(true)
+            .setPrometheusOptions(prometheusOptions)
+            .setLabels(EnumSet.of(Label.HTTP_METHOD,
+                                  Label.HTTP_CODE,
+                                  Label.EB_ADDRESS,
+                                  Label.EB_SIDE,
+                                  Label.EB_FAILURE,
+                                  Label.POOL_TYPE,
+                                  Label.POOL_NAME));
+
+        LOG.info("Prometheus metrics enabled on http://0.0.0.0:{}/metrics", port);
+
+        return vertxOptions.setMetricsOptions(metricsOptions);
+    }
+
+    static void bindEventLoops(Vertx vertx) {
+        if (!vertx.isMetricsEnabled()) {
+            return;
+        }
+
+        EventLoopGroup eventLoopGroup = ((VertxInternal) vertx).getEventLoopGroup();
+
+        int index = 0;
+        for (EventExecutor executor : eventLoopGroup) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                Gauge.builder("vertx_eventloop_pending_tasks",
+                              (SingleThreadEventExecutor) executor,
+                              SingleThreadEventExecutor::pendingTasks)
+                     .description("Number of tasks waiting in the event loop queue")
+                     .tag("loop", String.valueOf(index))
+                     .register(registry());
+            }
+            index++;
+        }
+    }
+
+
+    public static MeterRegistry registry() {
+        MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return registry != null ? registry : NOOP_REGISTRY;
+    }
+}
@@ -0,0 +1,92 @@
+package com.manikanta;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.channel.epoll.Epoll;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.impl.transport.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs which transport (native epoll/kqueue or JDK NIO) Vert.x ended up with and which of the
+ * configured TCP options are actually applied by it.
+ * <p>
+ * TCP_CORK, TCP_FASTOPEN and TCP_QUICKACK are epoll only options; with kqueue or NIO Vert.x
+ * silently ignores them, so without this report there is no way to tell they are not in effect.
+ */
+final class TransportDiagnostics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransportDiagnostics.class);
+
+    // Bit 2 (0x2) enables TCP Fast Open for the listening sockets
+    private static final Path TCP_FASTOPEN_SYSCTL = Paths.get("/proc/sys/net/ipv4/tcp_fastopen");
+
+
+    private TransportDiagnostics() {
+    }
+
+
+    static void report(Vertx vertx, boolean nativeTransportPreferred, HttpServerOptions options) {
+        boolean nativeTransport = vertx.isNativeTransportEnabled();
+        boolean epoll = nativeTransport && Epoll.isAvailable(); // Vert.x tries epoll before kqueue
+
+        if (nativeTransport) {
+            LOG.info("Transport: native ({})", Transport.nativeTransport().getClass().getSimpleName());
+        } else if (nativeTransportPreferred) {
+            LOG.warn("Transport: NIO (native transport preferred, but unavailable: {})", unavailabilityCause());
+        } else {
+            LOG.info("Transport: NIO (native transport not preferred)");
+        }
+
+        List<String> applied = new ArrayList<>();
+        List<String> ignored = new ArrayList<>();
+
+        collect("TCP_NODELAY", options.isTcpNoDelay(), true, applied, ignored);
+        collect("SO_KEEPALIVE", options.isTcpKeepAlive(), true, applied, ignored);
+        collect("TCP_CORK", options.isTcpCork(), epoll, applied, ignored);
+        collect("TCP_QUICKACK", options.isTcpQuickAck(), epoll, applied, ignored);
+        collect("TCP_FASTOPEN", options.isTcpFastOpen(), epoll && serverFastOpenEnabled(), applied, ignored);
+
+        LOG.info("TCP options in effect: {}", applied);
+        if (!ignored.isEmpty()) {
+            LOG.warn("TCP options configured but not in effect: {}", ignored);
+        }
+    }
+
+    private static void collect(String option, boolean configured, boolean supported,
+                                List<String> applied, List<String> ignored) {
+        if (!configured) {
+            return;
+        }
+        if (supported) applied.add(option);
+        else ignored.add(option);
+    }
+
+    private static String unavailabilityCause() {
+        Transport transport = Transport.nativeTransport();
+        if (transport == null) {
+            return "no native transport on the classpath";
+        }
+
+        Throwable cause = transport.unavailabilityCause();
+        return cause != null ? cause.toString() : "unknown";
+    }
+
+    private static boolean serverFastOpenEnabled() {
+        try {
+            String value = new String(Files.readAllBytes(TCP_FASTOPEN_SYSCTL), StandardCharsets.US_ASCII).trim();
+            return (Integer.parseInt(value) & 0x2) != 0;
+        } catch (IOException | NumberFormatException e) {
+            LOG.debug("Unable to read {}", TCP_FASTOPEN_SYSCTL, e);
+            return false;
+        }
+    }
+}
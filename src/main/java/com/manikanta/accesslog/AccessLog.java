@@ -0,0 +1,329 @@
+package com.manikanta.accesslog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.manikanta.ServerMetrics;
+import com.manikanta.connection.ConnectionManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access log of the HTTP server, one line per response, in the Common Log Format followed by the time to
+ * answer in microseconds:
+ * <pre>
+ * 127.0.0.1 - - [17/Oct/2026:20:30:03 +0000] "GET /static/app.js HTTP/1.1" 200 5120 312
+ * </pre>
+ * The event loops never touch the file: each line is formatted in place into a preallocated
+ * {@link AccessLogRing} slot (ASCII, no String nor builder; control characters, quotes and backslashes
+ * escaped as <code>\xHH</code>), and a dedicated writer thread copies the published lines into a direct
+ * buffer, written to the {@link RollingFile} once full or when the ring is empty. The busier the server,
+ * the larger the writes. When the ring is full (disk slower than the traffic) lines are dropped and
+ * counted, the requests aren't slowed down.
+ * <p>
+ * One instance per Vertx, shared by the verticle instances (one writer thread); fed by the
+ * {@link ConnectionManager} once the responses are written. Each verticle instance {@link #release()}s it
+ * on undeploy, the last one stops the writer, which writes what is left and closes the file.
+ * <p>
+ * Metrics: <code>access_log_entries</code> (written) and <code>access_log_dropped</code>.
+ */
+public final class AccessLog implements ConnectionManager.ResponseListener, Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final String SHARED_MAP = AccessLog.class.getName();
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int BATCH_SIZE = 64 * 1024;
+    // Room kept after the client: ' - - [', the date (26) and '] "'
+    private static final int DATE_SIZE = 6 + 26 + 3;
+    // Room kept for the rest: the space after the method, the version (11), status, bytes and time (20 digits
+    // and a sign at most each) with their separators and the newline
+    private static final int TAIL_SIZE = 1 + 11 + 3 * 21 + 3;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US)
+                                                                   .withZone(ZoneOffset.UTC);
+    private static final byte[] HTTP_1_0 = ascii(" HTTP/1.0\" ");
+    private static final byte[] HTTP_1_1 = ascii(" HTTP/1.1\" ");
+    private static final byte[] HTTP_2 = ascii(" HTTP/2.0\" ");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private final AccessLogOptions options;
+    private final AccessLogRing ring;
+    private final LocalMap<String, AccessLog> shared;
+    private int users; // Guarded by the class lock
+
+    private volatile Timestamp timestamp = new Timestamp(0);
+    private volatile boolean running = true;
+    private Thread writer;
+
+    private final Counter entries;
+    private final Counter dropped;
+
+
+    private AccessLog(AccessLogOptions options, LocalMap<String, AccessLog> shared) {
+        this.options = options;
+        this.shared = shared;
+        this.ring = new AccessLogRing(options.getCapacity(), options.getEntrySize());
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.entries = Counter.builder("access_log_entries")
+                              .description("Access log lines written")
+                              .register(registry);
+        this.dropped = Counter.builder("access_log_dropped")
+                              .description("Access log lines dropped, the ring buffer being full")
+                              .register(registry);
+    }
+
+
+    /**
+     * Returns the access log of the given Vertx instance, started from the config on first call;
+     * <code>null</code> when there is no config (no access log). To be {@link #release()}d.
+     */
+    public static AccessLog get(Vertx vertx, JsonObject config) {
+        if (config == null) {
+            return null;
+        }
+
+        // Locked rather than putIfAbsent: a single writer thread, started once
+        synchronized (AccessLog.class) {
+            LocalMap<String, AccessLog> shared = vertx.sharedData().getLocalMap(SHARED_MAP);
+            AccessLog accessLog = shared.get(SHARED_MAP);
+            if (accessLog == null) {
+                accessLog = new AccessLog(new AccessLogOptions(config), shared);
+                accessLog.start();
+                shared.put(SHARED_MAP, accessLog);
+            }
+            accessLog.users++;
+            return accessLog;
+        }
+    }
+
+    /**
+     * Releases the access log; the last user stops it (non-blocking, the writer finishes on its own).
+     */
+    public void release() {
+        synchronized (AccessLog.class) {
+            if (--users > 0) {
+                return;
+            }
+            shared.remove(SHARED_MAP); // A redeployment starts a new one
+        }
+        running = false;
+        LockSupport.unpark(writer);
+    }
+
+    private void start() {
+        RollingFile file;
+        try {
+            file = new RollingFile(Paths.get(options.getPath()), options.getMaxFileSize(), options.getMaxFiles());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the access log " + options.getPath(), e);
+        }
+
+        writer = new Thread(() -> write(file), "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        LOG.info("Access log: {} ({} entries of {} bytes buffered, rolled over at {} bytes, {} files kept)",
+                 options.getPath(), options.getCapacity(), options.getEntrySize(),
+                 options.getMaxFileSize(), options.getMaxFiles());
+    }
+
+
+    @Override
+    public void responseEnded(HttpServerRequest request, String client, long receivedAt) {
+        long position = ring.claim();
+        if (position < 0) {
+            dropped.increment();
+            return;
+        }
+
+        byte[] bytes = ring.entries();
+        int start = ring.offset(position);
+        int pos = start;
+        try {
+            // The variable parts are truncated so that the fixed ones always fit in the entry
+            int limit = start + ring.entrySize() - TAIL_SIZE;
+            HttpServerResponse response = request.response();
+
+            pos = putEscaped(bytes, pos, limit - DATE_SIZE, client);
+            bytes[pos++] = ' ';
+            bytes[pos++] = '-';
+            bytes[pos++] = ' ';
+            bytes[pos++] = '-';
+            bytes[pos++] = ' ';
+            bytes[pos++] = '[';
+            pos = put(bytes, pos, timestamp());
+            bytes[pos++] = ']';
+            bytes[pos++] = ' ';
+            bytes[pos++] = '"';
+            pos = putEscaped(bytes, pos, limit, request.rawMethod());
+            bytes[pos++] = ' ';
+            pos = putEscaped(bytes, pos, limit, request.uri());
+            pos = put(bytes, pos, version(request.version()));
+            pos = putLong(bytes, pos, response.getStatusCode());
+            bytes[pos++] = ' ';
+            pos = putLong(bytes, pos, response.bytesWritten());
+            bytes[pos++] = ' ';
+            pos = putLong(bytes, pos, (System.nanoTime() - receivedAt) / 1000);
+            bytes[pos++] = '\n';
+        } finally {
+            // Always published, the writer would wait for it otherwise
+            ring.publish(position, pos - start);
+        }
+    }
+
+
+    // Writer thread
+    private void write(RollingFile file) {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_SIZE);
+        boolean failing = false;
+
+        while (true) {
+            boolean stopping = !running; // Read before draining: what was published before stopping is written
+            int drained = ring.drainTo(batch);
+            entries.increment(drained);
+
+            // Full, or nothing more for now
+            if (batch.position() > 0 && (drained == 0 || batch.remaining() < ring.entrySize())) {
+                batch.flip();
+                try {
+                    file.write(batch);
+                    if (failing) {
+                        failing = false;
+                        LOG.info("Access log writes recovered");
+                    }
+                } catch (IOException e) {
+                    if (!failing) {
+                        failing = true; // Logged once, not for every batch
+                        LOG.error("Failed to write the access log, lines are lost until it recovers", e);
+                    }
+                }
+                batch.clear();
+            }
+
+            if (drained == 0) {
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        try {
+            file.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close the access log", e);
+        }
+    }
+
+
+    // Formatted once per second, by whichever event loop sees it first
+    private byte[] timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.second != second) {
+            current = new Timestamp(second);
+            timestamp = current;
+        }
+        return current.text;
+    }
+
+    private static byte[] version(HttpVersion version) {
+        switch (version) {
+            case HTTP_1_0:
+                return HTTP_1_0;
+            case HTTP_2:
+                return HTTP_2;
+            default:
+                return HTTP_1_1;
+        }
+    }
+
+    private static int put(byte[] bytes, int pos, byte[] value) {
+        System.arraycopy(value, 0, bytes, pos, value.length);
+        return pos + value.length;
+    }
+
+    // Printable ASCII as is, the rest escaped; truncated at the limit
+    private static int putEscaped(byte[] bytes, int pos, int limit, String value) {
+        if (value == null) {
+            if (pos < limit) {
+                bytes[pos++] = '-';
+            }
+            return pos;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x7f && c != '"' && c != '\\') {
+                if (pos >= limit) {
+                    break;
+                }
+                bytes[pos++] = (byte) c;
+            } else {
+                if (pos + 4 > limit) {
+                    break;
+                }
+                int b = c <= 0xff ? c : '?';
+                bytes[pos++] = '\\';
+                bytes[pos++] = 'x';
+                bytes[pos++] = HEX[b >> 4];
+                bytes[pos++] = HEX[b & 0xf];
+            }
+        }
+        return pos;
+    }
+
+    private static int putLong(byte[] bytes, int pos, long value) {
+        if (value < 0) {
+            bytes[pos++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+
+    private static final class Timestamp {
+
+        private final long second;
+        private final byte[] text;
+
+
+        private Timestamp(long second) {
+            this.second = second;
+            this.text = ascii(DATE.format(Instant.ofEpochSecond(second)));
+        }
+    }
+}
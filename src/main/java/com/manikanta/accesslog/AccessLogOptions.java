@@ -0,0 +1,69 @@
+package com.manikanta.accesslog;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the {@link AccessLog}; only the path is required:
+ * <pre>
+ * "accessLog": {
+ *   "path": "logs/access.log",
+ *   "maxFileSize": 104857600,   // Rolled over past this size: access.log.1, access.log.2, ...
+ *   "maxFiles": 10,             // Rolled files kept
+ *   "capacity": 65536,          // Entries the ring buffer holds (power of 2); more are dropped
+ *   "entrySize": 512            // Bytes per entry, longer ones are truncated
+ * }
+ * </pre>
+ */
+public class AccessLogOptions {
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 100 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 10;
+    public static final int DEFAULT_CAPACITY = 65_536;
+    public static final int DEFAULT_ENTRY_SIZE = 512;
+
+    private final String path;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final int capacity;
+    private final int entrySize;
+
+
+    public AccessLogOptions(JsonObject json) {
+        path = json.getString("path");
+        maxFileSize = json.getLong("maxFileSize", DEFAULT_MAX_FILE_SIZE);
+        maxFiles = json.getInteger("maxFiles", DEFAULT_MAX_FILES);
+        capacity = json.getInteger("capacity", DEFAULT_CAPACITY);
+        entrySize = json.getInteger("entrySize", DEFAULT_ENTRY_SIZE);
+
+        if (path == null) {
+            throw new IllegalArgumentException("accessLog: path is required");
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("accessLog: capacity must be a power of 2");
+        }
+        if (entrySize < 128 || maxFileSize < entrySize || maxFiles < 0) {
+            throw new IllegalArgumentException("accessLog: entrySize must be >= 128, maxFileSize >= entrySize, maxFiles >= 0");
+        }
+    }
+
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getEntrySize() {
+        return entrySize;
+    }
+}
@@ -0,0 +1,108 @@
+package com.manikanta.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded ring of fixed size entries, preallocated: written by the event loops (many producers), read by
+ * the writer thread (single consumer).
+ * <p>
+ * Each slot has a sequence (as in the Disruptor, or Vyukov's bounded queue): <code>position</code> when free
+ * for the producer at that position, <code>position + 1</code> once published, <code>position +
+ * capacity</code> once read (free for the next lap). Producers claim positions with a CAS on the tail and
+ * format in place, nothing is allocated nor locked; when the slot isn't read yet the ring is full and the
+ * entry is dropped, an event loop never waits for the disk.
+ */
+final class AccessLogRing {
+
+    private final int capacity;
+    private final int mask;
+    private final int entrySize;
+
+    private final byte[] entries; // capacity * entrySize bytes
+    private final int[] lengths; // Published with the sequence
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong(); // Next position to claim
+    private long head; // Next position to read (writer thread only)
+
+
+    AccessLogRing(int capacity, int entrySize) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entrySize = entrySize;
+        this.entries = new byte[capacity * entrySize];
+        this.lengths = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+
+    /**
+     * Claims the next slot; returns its position, or -1 when the ring is full.
+     */
+    long claim() {
+        long position = tail.get();
+        while (true) {
+            long sequence = sequences.get(index(position));
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                return -1; // Not read yet since the previous lap
+            } else {
+                position = tail.get(); // Claimed by another producer in between
+            }
+        }
+    }
+
+    byte[] entries() {
+        return entries;
+    }
+
+    int offset(long position) {
+        return index(position) * entrySize;
+    }
+
+    int entrySize() {
+        return entrySize;
+    }
+
+    /**
+     * Makes the entry written at the claimed position visible to the writer.
+     */
+    void publish(long position, int length) {
+        int index = index(position);
+        lengths[index] = length;
+        sequences.lazySet(index, position + 1); // Release: orders the writes of the entry before it
+    }
+
+    /**
+     * Copies the published entries, in order, while they fit; returns how many. Writer thread only.
+     */
+    int drainTo(ByteBuffer batch) {
+        int drained = 0;
+        while (batch.remaining() >= entrySize) {
+            int index = index(head);
+            if (sequences.get(index) != head + 1) {
+                break; // Not published yet (or nothing more)
+            }
+
+            batch.put(entries, index * entrySize, lengths[index]);
+            sequences.lazySet(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+
+    private int index(long position) {
+        return (int) position & mask;
+    }
+}
@@ -0,0 +1,90 @@
+package com.manikanta.accesslog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file rolled over by size: <code>access.log</code> becomes <code>access.log.1</code> (the
+ * previous <code>.1</code> becomes <code>.2</code>, and so on, up to <code>maxFiles</code>). Writer thread
+ * only.
+ */
+final class RollingFile {
+
+    private final Path path;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private FileChannel channel;
+    private long size;
+
+
+    RollingFile(Path path, long maxFileSize, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        open();
+    }
+
+
+    /**
+     * Writes the whole batch (flipped), rolling the file over first when it would go over the max size.
+     */
+    void write(ByteBuffer batch) throws IOException {
+        if (!channel.isOpen()) {
+            open(); // A previous roll failed to reopen it
+        }
+        if (size > 0 && size + batch.remaining() > maxFileSize) {
+            roll();
+        }
+        while (batch.hasRemaining()) {
+            size += channel.write(batch);
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    // When a rename fails, the current file is reopened and the roll retried by the next write
+    private void roll() throws IOException {
+        channel.close();
+
+        try {
+            if (maxFiles == 0) {
+                Files.delete(path);
+            } else {
+                Files.deleteIfExists(rolled(maxFiles));
+                for (int i = maxFiles - 1; i >= 1; i--) {
+                    Path file = rolled(i);
+                    if (Files.exists(file)) {
+                        Files.move(file, rolled(i + 1), StandardCopyOption.ATOMIC_MOVE);
+                    }
+                }
+                Files.move(path, rolled(1), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            open();
+        }
+    }
+
+    private Path rolled(int index) {
+        return Paths.get(path + "." + index);
+    }
+}
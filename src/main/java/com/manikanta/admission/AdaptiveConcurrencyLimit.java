@@ -0,0 +1,97 @@
+package com.manikanta.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit of the requests in flight, adapted from their latency (AIMD, as TCP congestion control):
+ * <ul>
+ * <li>a response slower than the latency target means the server is queueing: the limit is multiplied by
+ * {@link #BACKOFF}, at most once per latency target window (a burst of slow responses is one signal)</li>
+ * <li>a faster one, while the limit is actually in use (more than half of it in flight), adds
+ * <code>1 / limit</code>: about one more request per round of <code>limit</code> responses</li>
+ * </ul>
+ * So the limit settles around the concurrency the server sustains within the target, instead of letting every
+ * request in and all of them getting slow together. Requests over the limit are rejected right away.
+ * <p>
+ * Shared by the event loops: the counters and the limit (bits of a double) are updated with CAS only.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong lastDecreaseAt = new AtomicLong(System.nanoTime());
+
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long latencyNanos) {
+        int released = inFlight.getAndDecrement();
+
+        if (latencyNanos > latencyTargetNanos) {
+            decrease();
+        } else if (released * 2 >= limit()) {
+            increase();
+        }
+    }
+
+    int limit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+
+    private void increase() {
+        while (true) {
+            long bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            if (current >= maxLimit) {
+                return;
+            }
+            double updated = Math.min(maxLimit, current + 1 / current);
+            if (limit.compareAndSet(bits, Double.doubleToRawLongBits(updated))) {
+                return;
+            }
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        long last = lastDecreaseAt.get();
+        if (now - last < latencyTargetNanos || !lastDecreaseAt.compareAndSet(last, now)) {
+            return; // Already backed off for this window (or another loop just did)
+        }
+
+        while (true) {
+            long bits = limit.get();
+            double updated = Math.max(minLimit, Double.longBitsToDouble(bits) * BACKOFF);
+            if (limit.compareAndSet(bits, Double.doubleToRawLongBits(updated))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.manikanta.admission;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.manikanta.PreEncodedResponse;
+import com.manikanta.ServerMetrics;
+import com.manikanta.connection.ConnectionManager;
+import com.manikanta.routing.TrieRouter;
+import com.manikanta.worker.BoundedWorkerPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission stage in front of the router: when traffic spikes, the requests over the limits are answered
+ * right away, so the admitted ones keep their latency, instead of all the clients slowing down together.
+ * <ol>
+ * <li>per client IP token bucket: one client can't take the capacity of the others (429)</li>
+ * <li>per route token bucket (longest matching path prefix): caps an expensive route as a whole (429)</li>
+ * <li>adaptive concurrency limit (see {@link AdaptiveConcurrencyLimit}): caps the requests in flight at what
+ * the server answers within the latency target (503)</li>
+ * </ol>
+ * Rejections are pre-encoded responses: no allocation besides Vert.x's own. The buckets live in fixed size
+ * lock-free tables (see {@link TokenBucketTable}), whatever the number of clients.
+ * <p>
+ * One instance per Vertx (shared by the verticle instances, so the limits hold for the server as a whole),
+ * created from the config of the first one; each verticle instance {@link #release()}s it on undeploy. The
+ * concurrency slot of a request is released when its {@link ConnectionManager.Exchange} ends: response
+ * written or connection closed.
+ * <p>
+ * A request rejected by a stage gets back the tokens taken by the previous ones: only the admitted requests
+ * count against the limits.
+ * <p>
+ * Metrics: <code>admission_rejected</code> (tag <code>reason</code>: client, route, concurrency),
+ * <code>admission_concurrency_limit</code> and <code>admission_in_flight</code>.
+ */
+public final class AdmissionControl implements Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionControl.class);
+
+    public static final PreEncodedResponse TOO_MANY_REQUESTS = PreEncodedResponse.of(429, "text/plain", "Too many requests");
+    public static final PreEncodedResponse OVERLOADED = BoundedWorkerPool.OVERLOADED;
+
+    private static final String SHARED_MAP = AdmissionControl.class.getName();
+
+    private final int clientRate;
+    private final int clientBurst;
+    private final TokenBucketTable clients; // Null when disabled
+    private final List<AdmissionOptions.RouteLimit> routeLimits;
+    private final TokenBucketTable routes;
+    private final AdaptiveConcurrencyLimit concurrency; // Null when disabled
+
+    private final Counter clientRejected;
+    private final Counter routeRejected;
+    private final Counter concurrencyRejected;
+    private final List<Gauge> gauges = new ArrayList<>(); // Of this instance's limit, removed with it
+
+    private final LocalMap<String, AdmissionControl> shared;
+    private int users; // Guarded by the class lock
+
+
+    private AdmissionControl(AdmissionOptions options, LocalMap<String, AdmissionControl> shared) {
+        this.shared = shared;
+        this.clientRate = options.getClientRate();
+        this.clientBurst = options.getClientBurst();
+        this.clients = clientRate > 0 ? new TokenBucketTable(options.getClientTableSize()) : null;
+        this.routeLimits = options.getRoutes();
+        this.routes = new TokenBucketTable(routeLimits.size() * 8); // Roomy enough to never evict a route
+        this.concurrency = options.isAdaptiveConcurrency()
+            ? new AdaptiveConcurrencyLimit(options.getInitialLimit(),
+                                           options.getMinLimit(),
+                                           options.getMaxLimit(),
+                                           options.getLatencyTargetMs())
+            : null;
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.clientRejected = rejectedCounter(registry, "client");
+        this.routeRejected = rejectedCounter(registry, "route");
+        this.concurrencyRejected = rejectedCounter(registry, "concurrency");
+
+        if (concurrency != null) {
+            gauges.add(Gauge.builder("admission_concurrency_limit", concurrency, AdaptiveConcurrencyLimit::limit)
+                            .description("Current limit of the requests in flight")
+                            .register(registry));
+            gauges.add(Gauge.builder("admission_in_flight", concurrency, AdaptiveConcurrencyLimit::inFlight)
+                            .description("Admitted requests not answered yet")
+                            .register(registry));
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("admission_rejected")
+                      .description("Requests rejected by the admission control")
+                      .tag("reason", reason)
+                      .register(registry);
+    }
+
+
+    /**
+     * Returns the admission control of the given Vertx instance, created from the config on first call;
+     * <code>null</code> when there is no config (everything admitted). To be {@link #release()}d.
+     */
+    public static AdmissionControl get(Vertx vertx, JsonObject config) {
+        if (config == null) {
+            return null;
+        }
+
+        synchronized (AdmissionControl.class) {
+            LocalMap<String, AdmissionControl> shared = vertx.sharedData().getLocalMap(SHARED_MAP);
+            AdmissionControl admission = shared.get(SHARED_MAP);
+            if (admission == null) {
+                AdmissionOptions options = new AdmissionOptions(config);
+                admission = new AdmissionControl(options, shared);
+                shared.put(SHARED_MAP, admission);
+
+                LOG.info("Admission control: {} req/s per client (burst {}), {} route limit(s), concurrency limit {}",
+                         options.getClientRate() > 0 ? options.getClientRate() : "unlimited",
+                         options.getClientBurst(),
+                         options.getRoutes().size(),
+                         options.isAdaptiveConcurrency()
+                             ? options.getMinLimit() + "-" + options.getMaxLimit() + " (latency target " + options.getLatencyTargetMs() + "ms)"
+                             : "off");
+            }
+            admission.users++;
+            return admission;
+        }
+    }
+
+    /**
+     * Called by each user on undeploy, once its requests in flight are over; the last one drops the instance,
+     * so a redeployment starts from its own config.
+     */
+    public void release() {
+        synchronized (AdmissionControl.class) {
+            if (--users > 0) {
+                return;
+            }
+            shared.remove(SHARED_MAP);
+        }
+
+        MeterRegistry registry = ServerMetrics.registry();
+        gauges.forEach(registry::remove);
+    }
+
+
+    /**
+     * Returns true when the request can go on; otherwise it has been answered (429 or 503).
+     */
+    public boolean admit(HttpServerRequest request, ConnectionManager.Exchange exchange) {
+        long client = 0;
+        if (clients != null) {
+            client = TokenBucketTable.hash(request.remoteAddress().host());
+            if (!clients.tryAcquire(client, clientRate, clientBurst)) {
+                clientRejected.increment();
+                TOO_MANY_REQUESTS.send(request.response());
+                return false;
+            }
+        }
+
+        AdmissionOptions.RouteLimit route = route(TrieRouter.normalize(request.path())); // As the router sees it
+        if (route != null && !routes.tryAcquire(route.key, route.rate, route.burst)) {
+            refund(client, null);
+            routeRejected.increment();
+            TOO_MANY_REQUESTS.send(request.response());
+            return false;
+        }
+
+        if (concurrency != null) {
+            if (!concurrency.tryAcquire()) {
+                refund(client, route);
+                concurrencyRejected.increment();
+                OVERLOADED.send(request.response());
+                return false;
+            }
+            exchange.endHandler(new Permit(concurrency));
+        }
+
+        return true;
+    }
+
+    private void refund(long client, AdmissionOptions.RouteLimit route) {
+        if (clients != null) {
+            clients.refund(client, clientBurst);
+        }
+        if (route != null) {
+            routes.refund(route.key, route.burst);
+        }
+    }
+
+    // The prefix matches whole path segments: "/api" applies to "/api" and "/api/users", not to "/apis"
+    private AdmissionOptions.RouteLimit route(String path) {
+        for (int i = 0; i < routeLimits.size(); i++) {
+            AdmissionOptions.RouteLimit route = routeLimits.get(i);
+            String prefix = route.prefix;
+            if (path.startsWith(prefix)
+                && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/')) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    int concurrencyLimit() {
+        return concurrency != null ? concurrency.limit() : Integer.MAX_VALUE;
+    }
+
+
+    // Concurrency slot of an admitted request, released when its exchange ends (once, by the ConnectionManager)
+    private static final class Permit implements Handler<Void> {
+
+        private final AdaptiveConcurrencyLimit concurrency;
+        private final long admittedAt = System.nanoTime();
+
+
+        private Permit(AdaptiveConcurrencyLimit concurrency) {
+            this.concurrency = concurrency;
+        }
+
+
+        @Override
+        public void handle(Void event) {
+            concurrency.release(System.nanoTime() - admittedAt);
+        }
+    }
+}
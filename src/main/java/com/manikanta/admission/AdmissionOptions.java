@@ -0,0 +1,134 @@
+package com.manikanta.admission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the {@link AdmissionControl}; each stage is enabled by its own keys:
+ * <pre>
+ * "admission": {
+ *   "clientRate": 100, "clientBurst": 200, "clientTableSize": 65536,
+ *   "routes": { "/quotes": { "rate": 1000, "burst": 1000 } },
+ *   "concurrency": { "initialLimit": 256, "minLimit": 8, "maxLimit": 4096, "latencyTargetMs": 100 }
+ * }
+ * </pre>
+ * Rates are requests per second, bursts the requests allowed at once (at most
+ * {@value TokenBucketTable#MAX_BURST}).
+ */
+public class AdmissionOptions {
+
+    public static final int DEFAULT_CLIENT_TABLE_SIZE = 65_536;
+    public static final int DEFAULT_INITIAL_LIMIT = 256;
+    public static final int DEFAULT_MIN_LIMIT = 8;
+    public static final int DEFAULT_MAX_LIMIT = 4_096;
+    public static final long DEFAULT_LATENCY_TARGET_MS = 100;
+
+    private final int clientRate; // 0: no per client limit
+    private final int clientBurst;
+    private final int clientTableSize;
+    private final List<RouteLimit> routes = new ArrayList<>();
+
+    private final boolean adaptiveConcurrency;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetMs;
+
+
+    public AdmissionOptions(JsonObject json) {
+        clientRate = json.getInteger("clientRate", 0);
+        clientBurst = burst(json.getInteger("clientBurst", clientRate), "clientBurst");
+        clientTableSize = json.getInteger("clientTableSize", DEFAULT_CLIENT_TABLE_SIZE);
+
+        json.getJsonObject("routes", new JsonObject()).forEach(entry -> {
+            JsonObject route = (JsonObject) entry.getValue();
+            int rate = route.getInteger("rate");
+            routes.add(new RouteLimit(entry.getKey(), rate, burst(route.getInteger("burst", rate), entry.getKey())));
+        });
+        // Longest prefix first, so the most specific route applies
+        routes.sort((first, second) -> second.prefix.length() - first.prefix.length());
+
+        JsonObject concurrency = json.getJsonObject("concurrency");
+        adaptiveConcurrency = concurrency != null;
+        concurrency = concurrency != null ? concurrency : new JsonObject();
+        initialLimit = concurrency.getInteger("initialLimit", DEFAULT_INITIAL_LIMIT);
+        minLimit = concurrency.getInteger("minLimit", DEFAULT_MIN_LIMIT);
+        maxLimit = concurrency.getInteger("maxLimit", DEFAULT_MAX_LIMIT);
+        latencyTargetMs = concurrency.getLong("latencyTargetMs", DEFAULT_LATENCY_TARGET_MS);
+
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must be 0 < minLimit <= initialLimit <= maxLimit");
+        }
+    }
+
+    private static int burst(int burst, String name) {
+        if (burst > TokenBucketTable.MAX_BURST) {
+            throw new IllegalArgumentException(name + ": burst must be <= " + TokenBucketTable.MAX_BURST);
+        }
+        return burst;
+    }
+
+
+    public int getClientRate() {
+        return clientRate;
+    }
+
+    public int getClientBurst() {
+        return clientBurst;
+    }
+
+    // Clients tracked at once; beyond that the idle ones are forgotten
+    public int getClientTableSize() {
+        return clientTableSize;
+    }
+
+    public List<RouteLimit> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    // Responses slower than this make the concurrency limit back off
+    public long getLatencyTargetMs() {
+        return latencyTargetMs;
+    }
+
+
+    public static final class RouteLimit {
+
+        final String prefix;
+        final int rate;
+        final int burst;
+        final long key;
+
+
+        RouteLimit(String prefix, int rate, int burst) {
+            this.prefix = prefix;
+            this.rate = rate;
+            this.burst = burst;
+            this.key = TokenBucketTable.hash(prefix);
+        }
+
+
+        public String prefix() {
+            return prefix;
+        }
+    }
+}
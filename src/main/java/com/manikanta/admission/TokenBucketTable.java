@@ -0,0 +1,144 @@
+package com.manikanta.admission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets (rate per second, burst) of many keys in a fixed amount of memory, updated lock-free.
+ * <p>
+ * The table is two arrays of <code>capacity</code> longs: the key hashes, and the bucket states packed in one
+ * long (tokens in thousandths on the upper 23 bits, last refill time in ms on the lower 40 bits), so a bucket
+ * is taken with a single CAS and never allocates. A key is looked up in the {@link #PROBES} slots following
+ * its hash; when all are taken by other keys, the least recently refilled one is reused (its key starts
+ * over with a full bucket). The table can't grow, whatever the number of clients: it forgets the idle ones.
+ * <p>
+ * Concurrent first uses of a slot by two keys may briefly share a bucket; that errs on the side of limiting.
+ */
+final class TokenBucketTable {
+
+    static final int MAX_BURST = 8_000; // 23 bits of thousandths
+
+    private static final int PROBES = 8;
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+
+    TokenBucketTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(PROBES, capacity - 1)) << 1; // Power of 2
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.states = new AtomicLongArray(size);
+    }
+
+
+    /**
+     * Takes a token from the bucket of the key, if any left.
+     */
+    boolean tryAcquire(long key, int ratePerSecond, int burst) {
+        long now = (System.currentTimeMillis() - startedAtMillis) & TIME_MASK;
+        int slot = slot(key, now, burst);
+        return tryAcquire(slot, now, ratePerSecond, burst);
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for a request rejected by a later check.
+     */
+    void refund(long key, int burst) {
+        long now = (System.currentTimeMillis() - startedAtMillis) & TIME_MASK;
+        int slot = slot(key, now, burst);
+        long max = burst * 1000L;
+
+        while (true) {
+            long state = states.get(slot);
+            long tokens = Math.min(max, (state >>> TIME_BITS) + 1000);
+            if (states.compareAndSet(slot, state, pack(tokens, state & TIME_MASK))) {
+                return;
+            }
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+
+    private int slot(long key, long now, int burst) {
+        int first = (int) (key ^ (key >>> 32)) & mask;
+
+        int victim = first;
+        long victimTime = Long.MAX_VALUE;
+
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (first + probe) & mask;
+            long slotKey = keys.get(slot);
+
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == 0) {
+                if (keys.compareAndSet(slot, 0, key)) {
+                    states.set(slot, pack(burst * 1000L, now));
+                    return slot;
+                }
+                if (keys.get(slot) == key) {
+                    return slot;
+                }
+                continue;
+            }
+
+            long time = states.get(slot) & TIME_MASK;
+            if (time < victimTime) {
+                victim = slot;
+                victimTime = time;
+            }
+        }
+
+        // All taken: the least recently refilled key is forgotten
+        keys.set(victim, key);
+        states.set(victim, pack(burst * 1000L, now));
+        return victim;
+    }
+
+    private boolean tryAcquire(int slot, long now, int ratePerSecond, int burst) {
+        long max = burst * 1000L;
+
+        while (true) {
+            long state = states.get(slot);
+            long tokens = state >>> TIME_BITS;
+            long elapsed = now - (state & TIME_MASK);
+
+            if (elapsed > 0) {
+                tokens = Math.min(max, tokens + elapsed * ratePerSecond); // Thousandths per ms
+            }
+            if (tokens < 1000) {
+                return false; // Nothing written: rejected requests don't contend on the slot
+            }
+
+            long update = pack(tokens - 1000, Math.max(now, state & TIME_MASK));
+            if (states.compareAndSet(slot, state, update)) {
+                return true;
+            }
+        }
+    }
+
+    private static long pack(long thousandths, long time) {
+        return (thousandths << TIME_BITS) | time;
+    }
+
+
+    /**
+     * 64 bits FNV-1a of the string, never 0 (the empty slot marker).
+     */
+    static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,262 @@
+package com.manikanta.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+
+/**
+ * Read-through cache for the event loop: values are loaded with an async (Future returning) loader, kept for
+ * their TTL and evicted least recently used first once <code>maxSize</code> is reached.
+ * <p>
+ * The TTL is the cache's one, or each entry's own: the loader of a {@link #withEntryTtl} cache returns the
+ * value with its TTL (e.g. from the Cache-Control of the backend response), and {@link #put(Object, Object,
+ * long, TimeUnit)} takes one.
+ * <p>
+ * Concurrent misses for the same key are coalesced: only the first one calls the loader, the others wait for
+ * its result. Failed loads are not cached, nor are <code>null</code> values: a loader completing with
+ * <code>null</code> fails the get with a NullPointerException. A load still in flight when its key is
+ * invalidated completes its waiters, but its value isn't cached; the next get loads again.
+ * <p>
+ * Not thread safe, by design: create one per verticle instance and only use it from that verticle's context,
+ * like any other verticle state. This keeps the hot path free of locks & atomics.
+ * <p>
+ * Metrics (tag <code>cache</code>): <code>cache_gets{result=hit|miss|coalesced}</code>,
+ * <code>cache_evictions{cause=size|expired}</code> and <code>cache_load_failures</code>.
+ */
+public class AsyncLoadingCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Function<K, Future<Expiring<V>>> loader;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, PendingLoad<V>> pendingLoads = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter loadFailures;
+
+    // Plain copies of the counters above (the meters are no-ops when metrics are disabled)
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+
+    public AsyncLoadingCache(String name, int maxSize, long ttl, TimeUnit ttlUnit, Function<K, Future<V>> loader) {
+        this(name, maxSize, ttlUnit.toNanos(ttl), key -> loader.apply(key).map(value -> new Expiring<>(value, ttlUnit.toNanos(ttl))));
+    }
+
+    private AsyncLoadingCache(String name, int maxSize, long ttlNanos, Function<K, Future<Expiring<V>>> loader) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("ttl must be > 0");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.loader = loader;
+
+        // Access order: iteration starts with the least recently used entry
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true);
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.hits = gets(registry, name, "hit");
+        this.misses = gets(registry, name, "miss");
+        this.coalesced = gets(registry, name, "coalesced");
+        this.sizeEvictions = evictions(registry, name, "size");
+        this.expiredEvictions = evictions(registry, name, "expired");
+        this.loadFailures = Counter.builder("cache_load_failures")
+                                   .tag("cache", name)
+                                   .register(registry);
+    }
+
+    /**
+     * Cache whose loader sets the TTL of each value; <code>defaultTtl</code> applies to {@link #put(Object, Object)}.
+     */
+    public static <K, V> AsyncLoadingCache<K, V> withEntryTtl(String name, int maxSize, long defaultTtl, TimeUnit ttlUnit,
+                                                              Function<K, Future<Expiring<V>>> loader) {
+        return new AsyncLoadingCache<>(name, maxSize, ttlUnit.toNanos(defaultTtl), loader);
+    }
+
+    private static Counter gets(MeterRegistry registry, String name, String result) {
+        return Counter.builder("cache_gets")
+                      .tag("cache", name)
+                      .tag("result", result)
+                      .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String name, String cause) {
+        return Counter.builder("cache_evictions")
+                      .tag("cache", name)
+                      .tag("cause", cause)
+                      .register(registry);
+    }
+
+
+    public Future<V> get(K key) {
+        long now = System.nanoTime();
+
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (now - entry.expiresAt < 0) {
+                hits.increment();
+                hitCount++;
+                return Future.succeededFuture(entry.value);
+            }
+
+            entries.remove(key);
+            expiredEvictions.increment();
+            evictionCount++;
+        }
+
+        misses.increment();
+        missCount++;
+
+        Future<V> result = Future.future();
+
+        PendingLoad<V> pending = pendingLoads.get(key);
+        if (pending != null) {
+            coalesced.increment();
+            pending.waiters.add(result);
+            return result;
+        }
+
+        PendingLoad<V> load = new PendingLoad<>(result);
+        pendingLoads.put(key, load);
+
+        load(key).setHandler(ar -> complete(key, load, ar));
+
+        return result;
+    }
+
+    private Future<Expiring<V>> load(K key) {
+        try {
+            return loader.apply(key);
+        } catch (RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    private void complete(K key, PendingLoad<V> load, AsyncResult<Expiring<V>> ar) {
+        // Not the current load of the key when invalidated in between: the value is already stale
+        boolean current = pendingLoads.remove(key, load);
+
+        Future<V> result;
+        if (ar.failed()) {
+            result = Future.failedFuture(ar.cause());
+        } else if (ar.result() == null || ar.result().value == null) {
+            result = Future.failedFuture(new NullPointerException("Loaded a null value for " + key));
+        } else {
+            result = Future.succeededFuture(ar.result().value);
+            if (current) {
+                put(key, ar.result().value, ar.result().ttlNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (result.failed()) {
+            loadFailures.increment();
+        }
+        for (Future<V> waiter : load.waiters) {
+            waiter.handle(result);
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void put(K key, V value, long ttl, TimeUnit ttlUnit) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlUnit.toNanos(ttl)));
+
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+
+            sizeEvictions.increment();
+            evictionCount++;
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+        pendingLoads.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        pendingLoads.clear();
+    }
+
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+
+    /**
+     * Loaded value with its TTL.
+     */
+    public static final class Expiring<V> {
+        private final V value;
+        private final long ttlNanos;
+
+        private Expiring(V value, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+        }
+
+        public static <V> Expiring<V> of(V value, long ttl, TimeUnit ttlUnit) {
+            return new Expiring<>(value, ttlUnit.toNanos(ttl));
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt; // System.nanoTime()
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class PendingLoad<V> {
+        private final List<Future<V>> waiters = new ArrayList<>(1);
+
+        private PendingLoad(Future<V> first) {
+            waiters.add(first);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.manikanta.cluster;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.NetworkConfig;
+import com.manikanta.ServerConfig;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.spi.cluster.hazelcast.ConfigUtil;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Clustered mode: Vertx instances (JVMs) joined with Hazelcast, sharing one event bus.
+ * <p>
+ * Multicast discovery is replaced by TCP/IP discovery of the configured members (loopback by default), so
+ * several nodes can run on a single host: each new JVM takes the next free Hazelcast port from
+ * <code>clusterPort</code> and finds the others by scanning the following ports. The event bus itself uses a
+ * random port on <code>clusterHost</code>.
+ */
+public final class ClusterSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterSupport.class);
+
+    // Number of nodes that can be discovered per member host (one port each)
+    private static final int PORT_TRY_COUNT = 10;
+
+
+    private ClusterSupport() {
+    }
+
+
+    /**
+     * Creates a clustered or standalone Vertx, depending on the <code>cluster</code> config.
+     */
+    public static void createVertx(VertxOptions options, JsonObject config, Handler<AsyncResult<Vertx>> handler) {
+        if (!config.getBoolean(ServerConfig.CLUSTER, ServerConfig.DEFAULT_CLUSTER)) {
+            handler.handle(Future.succeededFuture(Vertx.vertx(options)));
+            return;
+        }
+
+        String host = config.getString(ServerConfig.CLUSTER_HOST, ServerConfig.DEFAULT_CLUSTER_HOST);
+
+        options.setClusterManager(new HazelcastClusterManager(hazelcastConfig(config, host)));
+        options.getEventBusOptions()
+               .setClustered(true)
+               .setHost(host)
+               .setPort(0);
+
+        Vertx.clusteredVertx(options, ar -> {
+            if (ar.succeeded()) {
+                HazelcastClusterManager clusterManager = (HazelcastClusterManager) options.getClusterManager();
+                LOG.info("Joined the cluster as node {} ({} nodes)",
+                         clusterManager.getNodeID(),
+                         clusterManager.getNodes().size());
+            }
+            handler.handle(ar);
+        });
+    }
+
+    static Config hazelcastConfig(JsonObject config, String host) {
+        // Vert.x's default config (maps & multimaps used by the event bus), discovery aside
+        Config hazelcastConfig = ConfigUtil.loadConfig();
+        hazelcastConfig.setProperty("hazelcast.logging.type", "slf4j");
+        hazelcastConfig.setProperty("hazelcast.tcp.join.port.try.count", String.valueOf(PORT_TRY_COUNT));
+
+        NetworkConfig network = hazelcastConfig.getNetworkConfig();
+        network.setPort(config.getInteger(ServerConfig.CLUSTER_PORT, ServerConfig.DEFAULT_CLUSTER_PORT))
+               .setPortAutoIncrement(true);
+        network.getInterfaces()
+               .setEnabled(true)
+               .addInterface(host);
+
+        List<String> members = config.getJsonArray(ServerConfig.CLUSTER_MEMBERS, new JsonArray().add(host))
+                                     .stream()
+                                     .map(Object::toString)
+                                     .collect(Collectors.toList());
+
+        JoinConfig join = network.getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAwsConfig().setEnabled(false);
+        join.getTcpIpConfig()
+            .setEnabled(true)
+            .setMembers(members);
+
+        return hazelcastConfig;
+    }
+}
@@ -0,0 +1,121 @@
+package com.manikanta.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * Node aware request/response on a clustered event bus.
+ * <p>
+ * A plain <code>send</code> round-robins over all the consumers of the cluster, so a request often crosses the
+ * network even when the node has a consumer of its own. Here:
+ * <ul>
+ * <li>{@link #send}: delivered to a consumer of this node when there is one (no network hop, no cluster
+ * lookup), to any node of the cluster otherwise</li>
+ * <li>{@link #sendToNode}: delivered to a consumer of the given node only (e.g. where the state lives)</li>
+ * </ul>
+ * Consumers must be registered through {@link #consumer} to be known to both.
+ */
+public class NodeAwareEventBus {
+
+    private static final String SHARED_MAP = NodeAwareEventBus.class.getName();
+
+    private final Vertx vertx;
+    private final EventBus eventBus;
+    private final String nodeId;
+    private final LocalConsumers localConsumers;
+
+
+    public NodeAwareEventBus(Vertx vertx) {
+        this.vertx = vertx;
+        this.eventBus = vertx.eventBus();
+        this.nodeId = vertx.isClustered() ? ((VertxInternal) vertx).getNodeID() : "local";
+
+        LocalMap<String, LocalConsumers> shared = vertx.sharedData().getLocalMap(SHARED_MAP);
+        LocalConsumers created = new LocalConsumers();
+        LocalConsumers existing = shared.putIfAbsent(SHARED_MAP, created);
+        this.localConsumers = existing != null ? existing : created;
+    }
+
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public static String nodeAddress(String address, String nodeId) {
+        return address + "@" + nodeId;
+    }
+
+
+    public <T> NodeAwareConsumer consumer(String address, Handler<Message<T>> handler) {
+        MessageConsumer<T> clusterConsumer = eventBus.consumer(address, handler);
+        MessageConsumer<T> nodeConsumer = eventBus.consumer(nodeAddress(address, nodeId), handler);
+        localConsumers.count(address).incrementAndGet();
+
+        return new NodeAwareConsumer(() -> {
+            localConsumers.count(address).decrementAndGet();
+            clusterConsumer.unregister();
+            nodeConsumer.unregister();
+        });
+    }
+
+    public <T> void send(String address, Object body, Handler<AsyncResult<Message<T>>> replyHandler) {
+        send(address, body, new DeliveryOptions(), replyHandler);
+    }
+
+    public <T> void send(String address,
+                         Object body,
+                         DeliveryOptions options,
+                         Handler<AsyncResult<Message<T>>> replyHandler) {
+        // A copy: the caller's options may be reused for other addresses
+        DeliveryOptions routed = new DeliveryOptions(options).setLocalOnly(localConsumers.count(address).get() > 0);
+        eventBus.send(address, body, routed, replyHandler);
+    }
+
+    public <T> void sendToNode(String nodeId,
+                               String address,
+                               Object body,
+                               Handler<AsyncResult<Message<T>>> replyHandler) {
+        eventBus.send(nodeAddress(address, nodeId), body, replyHandler);
+    }
+
+
+    public static final class NodeAwareConsumer {
+        private final Runnable unregister;
+        private final AtomicBoolean unregistered = new AtomicBoolean();
+
+        private NodeAwareConsumer(Runnable unregister) {
+            this.unregister = unregister;
+        }
+
+        /**
+         * Idempotent: only the first call decrements the local count and unregisters the consumers.
+         */
+        public void unregister() {
+            if (unregistered.compareAndSet(false, true)) {
+                unregister.run();
+            }
+        }
+    }
+
+    // Consumers registered on this node, per address
+    private static final class LocalConsumers implements Shareable {
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        private AtomicInteger count(String address) {
+            return counts.computeIfAbsent(address, key -> new AtomicInteger());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.manikanta.compression;
+
+/**
+ * Accept-Encoding header matching, without splitting the header into Strings.
+ * <p>
+ * <code>gzip, deflate, br;q=0.5</code> accepts gzip, deflate and br; a coding with <code>q=0</code> is refused,
+ * <code>*</code> accepts any coding not listed.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+
+    public static boolean accepts(CharSequence header, String coding) {
+        boolean wildcard = false;
+
+        int length = header.length();
+        int start = 0;
+        while (start < length) {
+            int end = indexOf(header, ',', start, length);
+
+            int nameEnd = indexOf(header, ';', start, end);
+            int nameStart = skipSpaces(header, start, nameEnd);
+            int nameStop = trimSpaces(header, nameStart, nameEnd);
+
+            boolean refused = refused(header, nameEnd, end);
+            if (regionMatches(header, nameStart, nameStop, coding)) {
+                return !refused;
+            }
+            if (regionMatches(header, nameStart, nameStop, "*")) {
+                wildcard = !refused;
+            }
+
+            start = end + 1;
+        }
+
+        return wildcard;
+    }
+
+
+    // ";q=0", ";q=0.0", ";q=0.000" (and spaces around) after the coding
+    private static boolean refused(CharSequence header, int from, int to) {
+        int q = from + 1;
+        q = skipSpaces(header, q, to);
+        if (q + 1 >= to || (header.charAt(q) | 0x20) != 'q') {
+            return false;
+        }
+        q = skipSpaces(header, q + 1, to);
+        if (q >= to || header.charAt(q) != '=') {
+            return false;
+        }
+        q = skipSpaces(header, q + 1, to);
+        int stop = trimSpaces(header, q, to);
+        if (q >= stop || header.charAt(q) != '0') {
+            return false;
+        }
+        for (int i = q + 1; i < stop; i++) {
+            char c = header.charAt(i);
+            if (c != '.' && c != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(CharSequence header, int from, int to, String coding) {
+        if (to - from != coding.length()) {
+            return false;
+        }
+        for (int i = 0; i < coding.length(); i++) {
+            if ((header.charAt(from + i) | 0x20) != coding.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence header, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (header.charAt(i) == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int skipSpaces(CharSequence header, int from, int to) {
+        while (from < to && header.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimSpaces(CharSequence header, int from, int to) {
+        while (to > from && header.charAt(to - 1) == ' ') {
+            to--;
+        }
+        return to;
+    }
+}
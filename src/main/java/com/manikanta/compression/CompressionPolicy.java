@@ -0,0 +1,109 @@
+package com.manikanta.compression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.manikanta.ServerConfig;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Which responses are worth compressing.
+ * <p>
+ * With <code>setCompressionSupported(true)</code> Vert.x (Netty) gzips every response the client accepts
+ * compressed: a 11 bytes "Hello world" costs a deflater (and a gzip header + trailer larger than the body),
+ * already compressed content (images, archives) costs CPU for nothing. A response is compressed only when:
+ * <ul>
+ * <li>its body is at least <code>compressionMinSize</code> bytes (unknown sizes, i.e. chunked, are)</li>
+ * <li>its content type is in <code>compressionMimeTypes</code> (<code>type/*</code> wildcards allowed)</li>
+ * </ul>
+ * Others are opted out with <code>Content-Encoding: identity</code>, which the compressor leaves alone.
+ * The level (<code>compressionLevel</code>, 1 fastest - 9 smallest) is applied to the server options.
+ * <p>
+ * Immutable, shared by all the verticle instances.
+ */
+public final class CompressionPolicy {
+
+    public static final int DEFAULT_LEVEL = 6;
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    public static final List<String> DEFAULT_MIME_TYPES = Arrays.asList(
+        "text/*",
+        "application/json",
+        "application/javascript",
+        "application/xml",
+        "image/svg+xml");
+
+    private final boolean enabled;
+    private final int level;
+    private final int minSize;
+    private final List<String> exactTypes = new ArrayList<>();
+    private final List<String> typePrefixes = new ArrayList<>(); // "text/" for "text/*"
+
+
+    public CompressionPolicy(JsonObject config) {
+        this.enabled = config.getBoolean(ServerConfig.COMPRESSION, ServerConfig.DEFAULT_COMPRESSION);
+        this.level = config.getInteger(ServerConfig.COMPRESSION_LEVEL, DEFAULT_LEVEL);
+        this.minSize = config.getInteger(ServerConfig.COMPRESSION_MIN_SIZE, DEFAULT_MIN_SIZE);
+
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between 1 and 9");
+        }
+
+        JsonArray mimeTypes = config.getJsonArray(ServerConfig.COMPRESSION_MIME_TYPES, new JsonArray(DEFAULT_MIME_TYPES));
+        for (Object mimeType : mimeTypes) {
+            String type = mimeType.toString().toLowerCase(Locale.ROOT);
+            if (type.endsWith("/*")) typePrefixes.add(type.substring(0, type.length() - 1));
+            else exactTypes.add(type);
+        }
+    }
+
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public int level() {
+        return level;
+    }
+
+    /**
+     * Whether a body of that type & length (-1 when unknown) is worth compressing.
+     */
+    public boolean shouldCompress(String contentType, long length) {
+        if (!enabled || (length >= 0 && length < minSize) || contentType == null) {
+            return false;
+        }
+
+        String type = mimeType(contentType);
+        if (exactTypes.contains(type)) {
+            return true;
+        }
+        for (String prefix : typePrefixes) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opts the response out of compression when it isn't worth it; to be called before the response is written.
+     */
+    public void apply(HttpServerResponse response, String contentType, long length) {
+        if (enabled && !shouldCompress(contentType, length)) {
+            response.headers().set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+        }
+    }
+
+
+    // "Text/HTML; charset=UTF-8" -> "text/html"
+    private static String mimeType(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String type = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,351 @@
+package com.manikanta.connection;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.impl.Http1xServerConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Live connections of one {@link com.manikanta.HttpServerVerticle} instance.
+ * <ul>
+ * <li>limit: connections over <code>maxConnections</code> are closed as soon as accepted (Vert.x has no
+ * accept limit; the client fails fast instead of queueing on an overloaded instance)</li>
+ * <li>registry: connection -> requests in flight, in an identity hash map (flat arrays); only touched by the
+ * instance event loop, which handles all of its connections, so nothing is synchronized</li>
+ * <li>graceful drain ({@link #drain(long, Handler)}, on undeploy): new connections are closed, idle ones
+ * closed right away, busy HTTP/1 ones get <code>Connection: close</code> on their next responses and are
+ * closed once answered, HTTP/2 ones get a GOAWAY; whatever is left at the deadline is closed</li>
+ * </ul>
+ * Idle connections are reaped by the server idle timeout (<code>idleTimeoutSec</code>).
+ * <p>
+ * Each request in flight is an {@link Exchange}, ended once: when its response is written (the response
+ * body end handler: request handlers must not set it), or when its connection closes first. The
+ * {@link ResponseListener} (access log) is told of the responses written; the end handler of the exchange
+ * (admission permit) of both.
+ * <p>
+ * Metrics: <code>connections_opened</code>, <code>connections_closed</code>, <code>connections_rejected</code>
+ * (tag <code>reason</code>: limit, draining), <code>connection_lifetime</code>, <code>connection_requests</code>
+ * (requests per connection) and <code>connections_open</code> (tag <code>instance</code>).
+ */
+public final class ConnectionManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionManager.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+    public static final long DEFAULT_DRAIN_TIMEOUT_MS = 10_000;
+
+    private final Vertx vertx;
+    private final int maxConnections;
+    private final ResponseListener listener; // Null when none
+    private final Map<HttpConnection, Tracked> connections = new IdentityHashMap<>();
+
+    private boolean draining;
+    private Handler<AsyncResult<Void>> drained;
+    private long drainTimer = -1;
+
+    private final Counter opened;
+    private final Counter closed;
+    private final Counter rejectedOverLimit;
+    private final Counter rejectedDraining;
+    private final Timer lifetime;
+    private final DistributionSummary requestsPerConnection;
+    private final Gauge open;
+
+
+    public ConnectionManager(Vertx vertx, int instance, int maxConnections, ResponseListener listener) {
+        this.vertx = vertx;
+        this.maxConnections = maxConnections;
+        this.listener = listener;
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.opened = Counter.builder("connections_opened")
+                             .description("Connections accepted and kept")
+                             .register(registry);
+        this.closed = Counter.builder("connections_closed")
+                             .description("Connections closed, by either side")
+                             .register(registry);
+        this.rejectedOverLimit = rejectedCounter(registry, "limit");
+        this.rejectedDraining = rejectedCounter(registry, "draining");
+        this.lifetime = Timer.builder("connection_lifetime")
+                             .description("Time from accept to close")
+                             .publishPercentileHistogram()
+                             .register(registry);
+        this.requestsPerConnection = DistributionSummary.builder("connection_requests")
+                                                        .description("Requests served per connection")
+                                                        .publishPercentileHistogram()
+                                                        .register(registry);
+        this.open = Gauge.builder("connections_open", connections, Map::size)
+                         .description("Open connections of the server instance")
+                         .tag("instance", String.valueOf(instance))
+                         .register(registry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("connections_rejected")
+                      .description("Connections closed as soon as accepted")
+                      .tag("reason", reason)
+                      .register(registry);
+    }
+
+
+    /**
+     * Server connection handler; returns false when the connection has been closed (limit, draining).
+     */
+    public boolean accept(HttpConnection connection) {
+        if (draining) {
+            rejectedDraining.increment();
+            connection.close();
+            return false;
+        }
+        if (connections.size() >= maxConnections) {
+            rejectedOverLimit.increment();
+            connection.close();
+            return false;
+        }
+
+        Tracked tracked = new Tracked(connection);
+        connections.put(connection, tracked);
+        opened.increment();
+
+        connection.closeHandler(v -> closed(tracked));
+        return true;
+    }
+
+    /**
+     * To be called first for every request, so it is counted in flight until its response is written;
+     * <code>null</code> when its connection is already closed (nothing to answer).
+     */
+    public Exchange requestReceived(HttpServerRequest request) {
+        Tracked tracked = connections.get(request.connection());
+        if (tracked == null) {
+            return null; // Closed in between
+        }
+
+        tracked.requests++;
+        if (draining && tracked.http1) {
+            request.response().putHeader(HttpHeaders.CONNECTION, HttpHeaders.CLOSE);
+        }
+
+        Exchange exchange = new Exchange(tracked, request);
+        tracked.add(exchange);
+        request.response().bodyEndHandler(exchange);
+        return exchange;
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    /**
+     * Removes the gauge of the instance, once drained (the shared metrics are kept).
+     */
+    public void close() {
+        ServerMetrics.registry().remove(open);
+    }
+
+
+    /**
+     * Stops taking connections and closes the ones open once their requests in flight are answered, or at
+     * the latest after <code>timeoutMs</code>; <code>done</code> is called then (always succeeded).
+     */
+    public void drain(long timeoutMs, Handler<AsyncResult<Void>> done) {
+        draining = true;
+        drained = done;
+
+        LOG.info("Draining {} connection(s), {} request(s) in flight (timeout {}ms)",
+                 connections.size(),
+                 connections.values().stream().mapToInt(tracked -> tracked.inFlight).sum(),
+                 timeoutMs);
+
+        // Closing fires the close handlers, which update the map
+        for (Tracked tracked : new ArrayList<>(connections.values())) {
+            if (!tracked.http1) {
+                tracked.connection.shutdown(timeoutMs); // GOAWAY: no new streams, closed when the current ones end
+            } else if (tracked.inFlight == 0) {
+                tracked.connection.close();
+            }
+        }
+
+        if (connections.isEmpty()) {
+            drainCompleted();
+            return;
+        }
+
+        drainTimer = vertx.setTimer(timeoutMs, timerId -> {
+            drainTimer = -1;
+            LOG.warn("Drain timeout: closing {} connection(s) with requests in flight", connections.size());
+            new ArrayList<>(connections.values()).forEach(tracked -> tracked.connection.close());
+            drainCompleted();
+        });
+    }
+
+
+    private void closed(Tracked tracked) {
+        if (connections.remove(tracked.connection) == null) {
+            return;
+        }
+
+        // The responses not written by now never will be
+        for (Exchange exchange = tracked.first; exchange != null; exchange = tracked.first) {
+            exchange.end();
+        }
+
+        closed.increment();
+        lifetime.record(System.nanoTime() - tracked.openedAt, TimeUnit.NANOSECONDS);
+        requestsPerConnection.record(tracked.requests);
+
+        if (draining && connections.isEmpty()) {
+            drainCompleted();
+        }
+    }
+
+    private void drainCompleted() {
+        if (drained == null) {
+            return;
+        }
+        if (drainTimer != -1) {
+            vertx.cancelTimer(drainTimer);
+            drainTimer = -1;
+        }
+
+        Handler<AsyncResult<Void>> done = drained;
+        drained = null;
+        done.handle(Future.succeededFuture());
+    }
+
+
+    /**
+     * A request in flight, until its response is written or its connection closed.
+     */
+    public final class Exchange implements Handler<Void> {
+
+        private final Tracked tracked;
+        private final HttpServerRequest request;
+        private final long receivedAt = System.nanoTime();
+        private Handler<Void> endHandler;
+        private boolean ended;
+        private Exchange previous; // In flight on the same connection (an intrusive list: no allocation)
+        private Exchange next;
+
+
+        private Exchange(Tracked tracked, HttpServerRequest request) {
+            this.tracked = tracked;
+            this.request = request;
+        }
+
+
+        /**
+         * Called once, when the response is written or the connection closes before.
+         */
+        public Exchange endHandler(Handler<Void> handler) {
+            this.endHandler = handler;
+            return this;
+        }
+
+        // Response written
+        @Override
+        public void handle(Void event) {
+            if (!end()) {
+                return; // Written after its connection closed
+            }
+
+            if (draining && tracked.http1 && tracked.inFlight == 0) {
+                tracked.connection.close();
+            }
+            if (listener != null) {
+                listener.responseEnded(request, tracked.client(), receivedAt);
+            }
+        }
+
+        private boolean end() {
+            if (ended) {
+                return false;
+            }
+
+            ended = true;
+            tracked.remove(this);
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+            return true;
+        }
+    }
+
+
+    private static final class Tracked {
+
+        private final HttpConnection connection;
+        private final boolean http1;
+        private final long openedAt = System.nanoTime();
+        private Exchange first; // Requests in flight
+        private int inFlight;
+        private int requests;
+        private String client; // Remote host, formatted once (Vert.x formats it on every call)
+
+
+        private Tracked(HttpConnection connection) {
+            this.connection = connection;
+            this.http1 = connection instanceof Http1xServerConnection;
+        }
+
+        private void add(Exchange exchange) {
+            exchange.next = first;
+            if (first != null) {
+                first.previous = exchange;
+            }
+            first = exchange;
+            inFlight++;
+        }
+
+        private void remove(Exchange exchange) {
+            if (exchange.previous != null) {
+                exchange.previous.next = exchange.next;
+            } else {
+                first = exchange.next;
+            }
+            if (exchange.next != null) {
+                exchange.next.previous = exchange.previous;
+            }
+            exchange.previous = null;
+            exchange.next = null;
+            inFlight--;
+        }
+
+        private String client() {
+            if (client == null) {
+                client = connection.remoteAddress().host();
+            }
+            return client;
+        }
+    }
+
+
+    /**
+     * Told of every response written, on the event loop.
+     */
+    public interface ResponseListener {
+
+        /**
+         * @param client     remote host of the connection
+         * @param receivedAt {@link System#nanoTime()} when the request was received
+         */
+        void responseEnded(HttpServerRequest request, String client, long receivedAt);
+    }
+}
@@ -0,0 +1,158 @@
+package com.manikanta.data;
+
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.jdbc.JDBCClient;
+import io.vertx.ext.sql.ResultSet;
+import io.vertx.ext.sql.SQLConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thin, Future based layer over {@link JDBCClient}.
+ * <p>
+ * JDBC is blocking: the client runs every statement with <code>executeBlocking</code> on the worker pool
+ * (ordered per connection), so nothing here ever blocks the calling event loop.
+ * <p>
+ * Config is the JDBCClient (C3P0 provider) one, with pool defaults tuned for a server:
+ * <ul>
+ * <li><code>max_pool_size</code>/<code>min_pool_size</code>/<code>initial_pool_size</code>: connections are
+ * opened upfront instead of on the first requests</li>
+ * <li><code>max_statements_per_connection</code>: prepared statement cache, so the hot queries are parsed
+ * & planned only once per connection</li>
+ * <li><code>max_idle_time</code>: idle connections above the minimum are closed after this many seconds</li>
+ * </ul>
+ */
+public class JdbcDataAccess {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcDataAccess.class);
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 16;
+    public static final int DEFAULT_MIN_POOL_SIZE = 4;
+    public static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 64;
+    public static final int DEFAULT_MAX_IDLE_TIME = 300;
+
+    private final JDBCClient client;
+
+
+    public JdbcDataAccess(Vertx vertx, JsonObject config) {
+        JsonObject clientConfig = withPoolDefaults(config);
+
+        // Shared by data source name: all the verticle instances use the same connection pool
+        this.client = JDBCClient.createShared(vertx, clientConfig, clientConfig.getString("datasource_name",
+                                                                                          JDBCClient.DEFAULT_DS_NAME));
+
+        LOG.info("JDBC pool for {}: {}-{} connections, {} cached statements per connection",
+                 clientConfig.getString("url"),
+                 clientConfig.getInteger("min_pool_size"),
+                 clientConfig.getInteger("max_pool_size"),
+                 clientConfig.getInteger("max_statements_per_connection"));
+    }
+
+    static JsonObject withPoolDefaults(JsonObject config) {
+        JsonObject clientConfig = config.copy();
+
+        int minPoolSize = clientConfig.getInteger("min_pool_size", DEFAULT_MIN_POOL_SIZE);
+
+        clientConfig.put("max_pool_size", clientConfig.getInteger("max_pool_size", DEFAULT_MAX_POOL_SIZE));
+        clientConfig.put("min_pool_size", minPoolSize);
+        clientConfig.put("initial_pool_size", clientConfig.getInteger("initial_pool_size", minPoolSize));
+        clientConfig.put("max_statements_per_connection",
+                         clientConfig.getInteger("max_statements_per_connection",
+                                                 DEFAULT_MAX_STATEMENTS_PER_CONNECTION));
+        clientConfig.put("max_idle_time", clientConfig.getInteger("max_idle_time", DEFAULT_MAX_IDLE_TIME));
+
+        return clientConfig;
+    }
+
+
+    public Future<ResultSet> query(String sql, JsonArray params) {
+        Future<ResultSet> result = Future.future();
+        client.queryWithParams(sql, params, result);
+        return result;
+    }
+
+    // Returns the number of updated rows
+    public Future<Integer> update(String sql, JsonArray params) {
+        Future<Integer> result = Future.future();
+
+        client.updateWithParams(sql, params, ar -> {
+            if (ar.succeeded()) result.complete(ar.result().getUpdated());
+            else result.fail(ar.cause());
+        });
+
+        return result;
+    }
+
+    public Future<Void> execute(String sql) {
+        Future<Void> result = Future.future();
+
+        client.getConnection(connAR -> {
+            if (connAR.failed()) {
+                result.fail(connAR.cause());
+                return;
+            }
+
+            SQLConnection connection = connAR.result();
+            connection.execute(sql, ar -> {
+                connection.close();
+                result.handle(ar);
+            });
+        });
+
+        return result;
+    }
+
+    /**
+     * Runs the same statement for all the given params as a single JDBC batch, in one transaction: one round
+     * trip & one commit instead of one per row. Returns the update count per row.
+     */
+    public Future<List<Integer>> batch(String sql, List<JsonArray> batchParams) {
+        Future<List<Integer>> result = Future.future();
+
+        client.getConnection(connAR -> {
+            if (connAR.failed()) {
+                result.fail(connAR.cause());
+                return;
+            }
+
+            SQLConnection connection = connAR.result();
+            Future<List<Integer>> batchResult = Future.future();
+
+            batchResult.setHandler(ar -> connection.setAutoCommit(true, resetAR -> {
+                connection.close();
+                result.handle(ar);
+            }));
+
+            connection.setAutoCommit(false, autoCommitAR -> {
+                if (autoCommitAR.failed()) {
+                    batchResult.fail(autoCommitAR.cause());
+                    return;
+                }
+
+                connection.batchWithParams(sql, batchParams, batchAR -> {
+                    if (batchAR.failed()) {
+                        connection.rollback(rollbackAR -> batchResult.fail(batchAR.cause()));
+                        return;
+                    }
+
+                    connection.commit(commitAR -> {
+                        if (commitAR.succeeded()) batchResult.complete(batchAR.result());
+                        else batchResult.fail(commitAR.cause());
+                    });
+                });
+            });
+        });
+
+        return result;
+    }
+
+
+    public void close() {
+        client.close();
+    }
+}
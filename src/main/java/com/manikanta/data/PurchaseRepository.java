@@ -0,0 +1,56 @@
+package com.manikanta.data;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * User purchases (the data behind the 'CRM' lookups of the examples).
+ * <p>
+ * Statements are constants, so each one is prepared once per pooled connection and then served from the
+ * statement cache.
+ */
+public class PurchaseRepository {
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS purchase ("
+        + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+        + "user_id VARCHAR(64) NOT NULL, "
+        + "amount INT NOT NULL)";
+    static final String INSERT = "INSERT INTO purchase (user_id, amount) VALUES (?, ?)";
+    static final String TOTAL_BY_USER = "SELECT COALESCE(SUM(amount), 0) FROM purchase WHERE user_id = ?";
+
+    private final JdbcDataAccess dataAccess;
+
+
+    public PurchaseRepository(JdbcDataAccess dataAccess) {
+        this.dataAccess = dataAccess;
+    }
+
+
+    public Future<Void> createSchema() {
+        return dataAccess.execute(CREATE_TABLE);
+    }
+
+    public Future<Integer> insert(String userId, int amount) {
+        return dataAccess.update(INSERT, new JsonArray().add(userId).add(amount));
+    }
+
+    // Purchases as {"userId": ..., "amount": ...}, inserted in one batch
+    public Future<Integer> insertAll(List<JsonObject> purchases) {
+        List<JsonArray> params = purchases.stream()
+                                          .map(purchase -> new JsonArray().add(purchase.getString("userId"))
+                                                                          .add(purchase.getInteger("amount")))
+                                          .collect(Collectors.toList());
+
+        return dataAccess.batch(INSERT, params)
+                         .map(counts -> counts.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    public Future<Long> totalPurchase(String userId) {
+        return dataAccess.query(TOTAL_BY_USER, new JsonArray().add(userId))
+                         .map(resultSet -> ((Number) resultSet.getResults().get(0).getValue(0)).longValue());
+    }
+}
@@ -0,0 +1,116 @@
+package com.manikanta.eventbus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageConsumer;
+
+/**
+ * Publishes items in batches: the items published to an address are collected and sent as one
+ * {@link MessageBatch} once <code>maxBatchSize</code> items are pending or <code>maxDelayMs</code> after the
+ * first pending one, whichever comes first. Each consumer then handles one message per batch instead of one
+ * per item, at the cost of at most <code>maxDelayMs</code> extra latency.
+ * <p>
+ * Consumers register with {@link #localConsumer}/{@link #consumer} and still handle one item at a time.
+ * <p>
+ * Not thread safe: one per verticle instance, used from its context.
+ */
+public class BatchingPublisher<T> {
+
+    private final Vertx vertx;
+    private final EventBus eventBus;
+    private final DeliveryOptions deliveryOptions;
+    private final int maxBatchSize;
+    private final long maxDelayMs;
+
+    private final Map<String, Pending<T>> pending = new HashMap<>();
+    private final DistributionSummary batchSizes;
+
+
+    // The batch codec (MessageBatchCodec.nameFor(itemType)) must be registered, see EventBusCodecs
+    public BatchingPublisher(Vertx vertx, Class<T> itemType, int maxBatchSize, long maxDelayMs) {
+        if (maxBatchSize < 1 || maxDelayMs < 1) {
+            throw new IllegalArgumentException("maxBatchSize & maxDelayMs must be > 0");
+        }
+
+        this.vertx = vertx;
+        this.eventBus = vertx.eventBus();
+        this.deliveryOptions = new DeliveryOptions().setCodecName(MessageBatchCodec.nameFor(itemType));
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMs = maxDelayMs;
+
+        this.batchSizes = DistributionSummary.builder("eventbus_batch_size")
+                                             .description("Items per published batch")
+                                             .tag("type", itemType.getSimpleName())
+                                             .register(ServerMetrics.registry());
+    }
+
+
+    public void publish(String address, T item) {
+        Pending<T> batch = pending.get(address);
+        if (batch == null) {
+            batch = new Pending<>(maxBatchSize);
+            pending.put(address, batch);
+        }
+
+        if (batch.items.isEmpty()) {
+            batch.timerId = vertx.setTimer(maxDelayMs, timerId -> flush(address));
+        }
+
+        batch.items.add(item);
+
+        if (batch.items.size() >= maxBatchSize) {
+            flush(address);
+        }
+    }
+
+    public void flush() {
+        new ArrayList<>(pending.keySet()).forEach(this::flush);
+    }
+
+    private void flush(String address) {
+        Pending<T> batch = pending.get(address);
+        if (batch == null || batch.items.isEmpty()) {
+            return;
+        }
+
+        vertx.cancelTimer(batch.timerId);
+
+        List<T> items = batch.items;
+        batch.items = new ArrayList<>(maxBatchSize);
+
+        batchSizes.record(items.size());
+        eventBus.publish(address, new MessageBatch<>(items), deliveryOptions);
+    }
+
+
+    public static <T> MessageConsumer<MessageBatch<T>> localConsumer(EventBus eventBus,
+                                                                     String address,
+                                                                     Handler<T> itemHandler) {
+        return eventBus.localConsumer(address, message -> message.body().items().forEach(itemHandler::handle));
+    }
+
+    public static <T> MessageConsumer<MessageBatch<T>> consumer(EventBus eventBus,
+                                                                String address,
+                                                                Handler<T> itemHandler) {
+        return eventBus.consumer(address, message -> message.body().items().forEach(itemHandler::handle));
+    }
+
+
+    private static final class Pending<T> {
+        private List<T> items;
+        private long timerId;
+
+        private Pending(int maxBatchSize) {
+            this.items = new ArrayList<>(maxBatchSize);
+        }
+    }
+}
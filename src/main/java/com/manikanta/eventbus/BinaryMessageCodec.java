@@ -0,0 +1,85 @@
+package com.manikanta.eventbus;
+
+import java.nio.charset.StandardCharsets;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Base of the event bus codecs for immutable domain objects.
+ * <ul>
+ * <li>Across nodes: compact binary encoding (fixed width fields, no field names), length prefixed as required
+ * by the clustered event bus</li>
+ * <li>Local delivery: {@link #transform} hands over the same instance, nothing is copied or serialized.
+ * Safe only because the objects are immutable</li>
+ * </ul>
+ */
+public abstract class BinaryMessageCodec<T> implements MessageCodec<T, T> {
+
+    private final String name;
+
+
+    protected BinaryMessageCodec(Class<T> type) {
+        this.name = "binary-" + type.getName();
+    }
+
+
+    protected abstract void write(Buffer buffer, T value);
+
+    // Reads the value written by write(), starting at pos
+    protected abstract T read(Buffer buffer, int pos);
+
+
+    @Override
+    public void encodeToWire(Buffer buffer, T value) {
+        int lengthPos = buffer.length();
+        buffer.appendInt(0);
+
+        write(buffer, value);
+
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    @Override
+    public T decodeFromWire(int pos, Buffer buffer) {
+        return read(buffer, pos + 4);
+    }
+
+    @Override
+    public T transform(T value) {
+        return value;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1; // User codec
+    }
+
+
+    // Strings as length (unsigned short) + UTF-8 bytes: short fields (symbols, ids), up to 64KB encoded
+    protected static final int MAX_STRING_SIZE = 0xFFFF;
+
+    protected static void writeString(Buffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_SIZE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes, more than " + MAX_STRING_SIZE);
+        }
+        buffer.appendUnsignedShort(bytes.length)
+              .appendBytes(bytes);
+    }
+
+    protected static String readString(Buffer buffer, int pos) {
+        int length = buffer.getUnsignedShort(pos);
+        return buffer.getString(pos + 2, pos + 2 + length, "UTF-8");
+    }
+
+    // Size of a string written by writeString()
+    protected static int stringSize(Buffer buffer, int pos) {
+        return 2 + buffer.getUnsignedShort(pos);
+    }
+}
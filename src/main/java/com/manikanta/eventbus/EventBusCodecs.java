@@ -0,0 +1,43 @@
+package com.manikanta.eventbus;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.shareddata.LocalMap;
+
+/**
+ * Registers the application codecs on the event bus, once per Vertx instance (every verticle instance can
+ * call {@link #register(Vertx)}, the event bus rejects duplicate registrations).
+ * <ul>
+ * <li>domain objects ({@link StockTick}, ...): default codecs, picked by the body class - nothing to do when
+ * sending</li>
+ * <li>batches of domain objects (see {@link BatchingPublisher}): named codecs, set by the publisher</li>
+ * <li>JsonObject without local copy: send with {@link #passThroughJson()} options</li>
+ * </ul>
+ */
+public final class EventBusCodecs {
+
+    private static final String SHARED_MAP = EventBusCodecs.class.getName();
+
+
+    private EventBusCodecs() {
+    }
+
+
+    public static void register(Vertx vertx) {
+        LocalMap<String, Boolean> registered = vertx.sharedData().getLocalMap(SHARED_MAP);
+        if (registered.putIfAbsent(SHARED_MAP, Boolean.TRUE) != null) {
+            return;
+        }
+
+        EventBus eventBus = vertx.eventBus();
+        eventBus.registerCodec(new PassThroughJsonCodec());
+        eventBus.registerDefaultCodec(StockTick.class, new StockTickCodec());
+        eventBus.registerCodec(new MessageBatchCodec<>(StockTick.class, new StockTickCodec()));
+    }
+
+    // The sender must not modify the JsonObject once sent: local consumers get the very same instance
+    public static DeliveryOptions passThroughJson() {
+        return new DeliveryOptions().setCodecName(PassThroughJsonCodec.NAME);
+    }
+}
@@ -0,0 +1,306 @@
+package com.manikanta.eventbus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request/response with credit based flow control.
+ * <p>
+ * A plain <code>send</code> with a reply handler never waits: when the consumers are slower than the producer,
+ * the requests pile up in the consumers' queues (and the reply handlers on the producer side) until they
+ * time out. Here each request takes a credit and each reply (or failure) gives it back:
+ * <ul>
+ * <li>consumers registered with {@link #consumer}/{@link #localConsumer} grant the credits: every reply
+ * carries the number of requests a producer may have in flight (header {@link #CREDITS_HEADER})</li>
+ * <li>until the first reply, a producer has a single credit</li>
+ * <li>requests without a credit are queued (up to <code>maxQueued</code>) and sent as credits come back;
+ * above that they are failed with a {@link RejectedExecutionException}</li>
+ * <li>producers should pause on {@link #writeQueueFull()} and resume in the {@link #drainHandler}, as with a
+ * <code>WriteStream</code></li>
+ * </ul>
+ * So at most <code>credits + maxQueued</code> requests are pending, and the latency stays bounded by the
+ * consumers' throughput instead of growing until the send timeout.
+ * <p>
+ * Metrics (tags <code>address</code> and <code>sender</code>, a number per sender):
+ * <code>eventbus_flow_in_flight</code>, <code>eventbus_flow_queued</code>, <code>eventbus_flow_queue_wait</code>
+ * (time waiting for a credit) and <code>eventbus_flow_rejected</code>; removed by {@link #close()}.
+ * <p>
+ * Not thread safe: one per verticle instance, used from its context (the metrics are read from any thread).
+ */
+public class FlowControlledSender {
+
+    public static final String CREDITS_HEADER = "x-flow-credits";
+
+    private static final Logger LOG = LoggerFactory.getLogger(FlowControlledSender.class);
+
+    private static final AtomicInteger SENDERS = new AtomicInteger();
+
+    private final EventBus eventBus;
+    private final String address;
+    private final int maxQueued;
+    private final Queue<PendingRequest> queue = new ArrayDeque<>();
+
+    // Updated from the context, atomics only for the gauges
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private int credits = 1; // Granted by the consumers
+    private Handler<Void> drainHandler;
+
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final List<Meter> meters = new ArrayList<>();
+
+
+    public FlowControlledSender(EventBus eventBus, String address, int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must be >= 0");
+        }
+
+        this.eventBus = eventBus;
+        this.address = address;
+        this.maxQueued = maxQueued;
+
+        MeterRegistry registry = ServerMetrics.registry();
+        Tags tags = Tags.of("address", address, "sender", String.valueOf(SENDERS.incrementAndGet()));
+        this.queueWait = Timer.builder("eventbus_flow_queue_wait")
+                              .description("Time spent by the requests waiting for a credit")
+                              .tags(tags)
+                              .publishPercentileHistogram()
+                              .register(registry);
+        this.rejected = Counter.builder("eventbus_flow_rejected")
+                               .description("Requests rejected as the queue was full")
+                               .tags(tags)
+                               .register(registry);
+        meters.add(queueWait);
+        meters.add(rejected);
+        meters.add(Gauge.builder("eventbus_flow_in_flight", inFlight, AtomicInteger::get)
+                        .description("Requests sent and waiting for their reply")
+                        .tags(tags)
+                        .register(registry));
+        meters.add(Gauge.builder("eventbus_flow_queued", queued, AtomicInteger::get)
+                        .description("Requests waiting for a credit")
+                        .tags(tags)
+                        .register(registry));
+    }
+
+
+    public <R> Future<Message<R>> request(Object body) {
+        return request(body, new DeliveryOptions());
+    }
+
+    public <R> Future<Message<R>> request(Object body, DeliveryOptions options) {
+        Future<Message<R>> result = Future.future();
+
+        if (inFlight.get() < credits && queue.isEmpty()) {
+            send(body, options, result);
+        } else if (queue.size() < maxQueued) {
+            queue.add(new PendingRequest(body, options, result));
+            queued.incrementAndGet();
+        } else {
+            rejected.increment();
+            result.fail(new RejectedExecutionException("No credit left for '" + address + "' and queue full"));
+        }
+
+        return result;
+    }
+
+    /**
+     * Whether all the credits are in use: the next requests will be queued, so the producer should pause
+     * until the {@link #drainHandler} is called.
+     */
+    public boolean writeQueueFull() {
+        return inFlight.get() + queue.size() >= credits;
+    }
+
+    public FlowControlledSender drainHandler(Handler<Void> handler) {
+        this.drainHandler = handler;
+        return this;
+    }
+
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public int credits() {
+        return credits;
+    }
+
+    /**
+     * Removes the metrics of the sender; the requests still pending complete as usual.
+     */
+    public void close() {
+        MeterRegistry registry = ServerMetrics.registry();
+        meters.forEach(registry::remove);
+    }
+
+
+    private <R> void send(Object body, DeliveryOptions options, Future<Message<R>> result) {
+        inFlight.incrementAndGet();
+
+        eventBus.<R>send(address, body, options, ar -> {
+            inFlight.decrementAndGet();
+
+            if (ar.succeeded()) {
+                String granted = ar.result().headers().get(CREDITS_HEADER);
+                if (granted != null) {
+                    try {
+                        credits = Math.max(1, Integer.parseInt(granted));
+                    } catch (NumberFormatException e) {
+                        LOG.warn("Ignoring the malformed {} header from '{}': {}", CREDITS_HEADER, address, granted);
+                    }
+                }
+            }
+
+            result.handle(ar);
+            drain();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        while (inFlight.get() < credits && !queue.isEmpty()) {
+            PendingRequest request = queue.poll();
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - request.queuedAt, TimeUnit.NANOSECONDS);
+            send(request.body, request.options, (Future<Message<Object>>) request.result);
+        }
+
+        Handler<Void> handler = drainHandler;
+        if (handler != null && !writeQueueFull()) {
+            drainHandler = null;
+            handler.handle(null);
+        }
+    }
+
+
+    /**
+     * Registers a consumer granting up to <code>credits</code> requests in flight to each producer.
+     */
+    public static <T> MessageConsumer<T> consumer(EventBus eventBus,
+                                                  String address,
+                                                  int credits,
+                                                  Handler<Message<T>> handler) {
+        return eventBus.consumer(address, message -> handler.handle(new CreditGrantingMessage<>(message, credits)));
+    }
+
+    public static <T> MessageConsumer<T> localConsumer(EventBus eventBus,
+                                                       String address,
+                                                       int credits,
+                                                       Handler<Message<T>> handler) {
+        return eventBus.localConsumer(address, message -> handler.handle(new CreditGrantingMessage<>(message, credits)));
+    }
+
+
+    private static final class PendingRequest {
+        private final Object body;
+        private final DeliveryOptions options;
+        private final Future<?> result;
+        private final long queuedAt = System.nanoTime();
+
+        private PendingRequest(Object body, DeliveryOptions options, Future<?> result) {
+            this.body = body;
+            this.options = options;
+            this.result = result;
+        }
+    }
+
+    // Adds the granted credits to the replies
+    private static final class CreditGrantingMessage<T> implements Message<T> {
+        private final Message<T> message;
+        private final String credits;
+
+        private CreditGrantingMessage(Message<T> message, int credits) {
+            this.message = message;
+            this.credits = String.valueOf(credits);
+        }
+
+        @Override
+        public String address() {
+            return message.address();
+        }
+
+        @Override
+        public MultiMap headers() {
+            return message.headers();
+        }
+
+        @Override
+        public T body() {
+            return message.body();
+        }
+
+        @Override
+        public String replyAddress() {
+            return message.replyAddress();
+        }
+
+        @Override
+        public boolean isSend() {
+            return message.isSend();
+        }
+
+        @Override
+        public void reply(Object reply) {
+            reply(reply, new DeliveryOptions());
+        }
+
+        @Override
+        public <R> void reply(Object reply, Handler<AsyncResult<Message<R>>> replyHandler) {
+            reply(reply, new DeliveryOptions(), replyHandler);
+        }
+
+        @Override
+        public void reply(Object reply, DeliveryOptions options) {
+            message.reply(reply, withCredits(options));
+        }
+
+        @Override
+        public <R> void reply(Object reply, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
+            message.reply(reply, withCredits(options), replyHandler);
+        }
+
+        // A copy, headers included (the DeliveryOptions copy constructor shares them): the consumer may reuse
+        // its options for every reply
+        private DeliveryOptions withCredits(DeliveryOptions options) {
+            MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+            if (options.getHeaders() != null) {
+                headers.addAll(options.getHeaders());
+            }
+            headers.set(CREDITS_HEADER, credits);
+            return new DeliveryOptions(options).setHeaders(headers);
+        }
+
+        @Override
+        public void fail(int failureCode, String failureMessage) {
+            message.fail(failureCode, failureMessage); // Failures carry no headers: the producer keeps its credits
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.manikanta.eventbus;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Envelope of the items published together by a {@link BatchingPublisher}. Immutable: delivered as is to
+ * the local consumers.
+ */
+public final class MessageBatch<T> {
+
+    private final List<T> items;
+
+
+    MessageBatch(List<T> items) {
+        this.items = Collections.unmodifiableList(items);
+    }
+
+
+    public List<T> items() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
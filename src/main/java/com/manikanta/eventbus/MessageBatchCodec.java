@@ -0,0 +1,81 @@
+package com.manikanta.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Codec of the {@link MessageBatch}es of one item type: the batch is handed over as is to local consumers and
+ * encoded as item count + items (with the item's {@link BinaryMessageCodec}) across nodes.
+ * <p>
+ * Batches of all types share the same class, so these codecs are registered by name
+ * ({@link #nameFor(Class)}) rather than as default codecs.
+ */
+public class MessageBatchCodec<T> implements MessageCodec<MessageBatch<T>, MessageBatch<T>> {
+
+    private final String name;
+    private final BinaryMessageCodec<T> itemCodec;
+
+
+    public MessageBatchCodec(Class<T> itemType, BinaryMessageCodec<T> itemCodec) {
+        this.name = nameFor(itemType);
+        this.itemCodec = itemCodec;
+    }
+
+    // For items that are never sent across nodes
+    public static <T> MessageBatchCodec<T> localOnly(Class<T> itemType) {
+        return new MessageBatchCodec<>(itemType, null);
+    }
+
+    public static String nameFor(Class<?> itemType) {
+        return "batch-" + itemType.getName();
+    }
+
+
+    @Override
+    public void encodeToWire(Buffer buffer, MessageBatch<T> batch) {
+        if (itemCodec == null) {
+            throw new IllegalStateException(name + " is a local only codec");
+        }
+
+        buffer.appendInt(batch.size());
+        for (T item : batch.items()) {
+            itemCodec.encodeToWire(buffer, item);
+        }
+    }
+
+    @Override
+    public MessageBatch<T> decodeFromWire(int pos, Buffer buffer) {
+        if (itemCodec == null) {
+            throw new IllegalStateException(name + " is a local only codec");
+        }
+
+        int size = buffer.getInt(pos);
+        pos += 4;
+
+        List<T> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(itemCodec.decodeFromWire(pos, buffer));
+            pos += 4 + buffer.getInt(pos); // Length prefix + item
+        }
+
+        return new MessageBatch<>(items);
+    }
+
+    @Override
+    public MessageBatch<T> transform(MessageBatch<T> batch) {
+        return batch;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1; // User codec
+    }
+}
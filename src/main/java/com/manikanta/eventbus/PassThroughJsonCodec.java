@@ -0,0 +1,50 @@
+package com.manikanta.eventbus;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.codecs.JsonObjectMessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * JsonObject codec without the local copy.
+ * <p>
+ * Vert.x's own JsonObject codec deep copies the object for every local consumer (so that a consumer can't
+ * see changes made by the sender). When the sender hands the object over and never touches it again, the
+ * copy is pure overhead: this codec delivers the same instance locally, and encodes like the default codec
+ * across nodes.
+ * <p>
+ * JsonObject is a built-in type, so this can't be the default codec: select it per message with
+ * {@link EventBusCodecs#passThroughJson()}.
+ */
+public class PassThroughJsonCodec implements MessageCodec<JsonObject, JsonObject> {
+
+    public static final String NAME = "json-pass-through";
+
+    private final JsonObjectMessageCodec wireCodec = new JsonObjectMessageCodec();
+
+
+    @Override
+    public void encodeToWire(Buffer buffer, JsonObject json) {
+        wireCodec.encodeToWire(buffer, json);
+    }
+
+    @Override
+    public JsonObject decodeFromWire(int pos, Buffer buffer) {
+        return wireCodec.decodeFromWire(pos, buffer);
+    }
+
+    @Override
+    public JsonObject transform(JsonObject json) {
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1; // User codec
+    }
+}
@@ -0,0 +1,46 @@
+package com.manikanta.eventbus;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Stock price update, as published on the <code>stocks.*</code> addresses. Immutable, so it can be delivered
+ * to local consumers as is (see {@link StockTickCodec}).
+ */
+public final class StockTick {
+
+    private final String symbol;
+    private final long price; // In cents
+    private final long timestamp;
+
+
+    public StockTick(String symbol, long price, long timestamp) {
+        this.symbol = symbol;
+        this.price = price;
+        this.timestamp = timestamp;
+    }
+
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public long price() {
+        return price;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+            .put("symbol", symbol)
+            .put("price", price)
+            .put("timestamp", timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return symbol + "@" + price + " (" + timestamp + ")";
+    }
+}
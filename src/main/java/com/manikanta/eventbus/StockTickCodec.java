@@ -0,0 +1,30 @@
+package com.manikanta.eventbus;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Wire format: symbol (unsigned short length + UTF-8), price (long), timestamp (long); ~25 bytes for a 'GOOG' tick,
+ * against ~60 for the same tick as JSON.
+ */
+public class StockTickCodec extends BinaryMessageCodec<StockTick> {
+
+    public StockTickCodec() {
+        super(StockTick.class);
+    }
+
+
+    @Override
+    protected void write(Buffer buffer, StockTick tick) {
+        writeString(buffer, tick.symbol());
+        buffer.appendLong(tick.price())
+              .appendLong(tick.timestamp());
+    }
+
+    @Override
+    protected StockTick read(Buffer buffer, int pos) {
+        String symbol = readString(buffer, pos);
+        pos += stringSize(buffer, pos);
+
+        return new StockTick(symbol, buffer.getLong(pos), buffer.getLong(pos + 8));
+    }
+}
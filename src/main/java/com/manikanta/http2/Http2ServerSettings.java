@@ -0,0 +1,49 @@
+package com.manikanta.http2;
+
+import com.manikanta.ServerConfig;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * HTTP/2 settings the server sends to its clients, from the <code>http2</code> config:
+ * <pre>
+ * "http2": {
+ *   "maxConcurrentStreams": 100,   // Requests in flight per connection
+ *   "initialWindowSize": 65535,    // Per stream flow control window (bytes the peer may send unacknowledged)
+ *   "connectionWindowSize": -1,    // Whole connection window; -1 keeps the protocol default (65535)
+ *   "headerTableSize": 4096,       // HPACK dynamic table (repeated headers sent as indexes)
+ *   "maxFrameSize": 16384,
+ *   "maxHeaderListSize": 8192
+ * }
+ * </pre>
+ * More concurrent streams let a client multiplex more requests on one connection. The windows are how much
+ * the client may send before waiting for a WINDOW_UPDATE: larger ones speed up request bodies (uploads) on high
+ * latency links. Responses are flow controlled by the client's own settings.
+ * <p>
+ * HTTP/2 is negotiated with ALPN over TLS (h2, see ServerTls); in clear text (h2c) Vert.x accepts both
+ * the <code>Upgrade: h2c</code> request and prior knowledge (the client starts with the HTTP/2 preface),
+ * unless started with <code>-Dvertx.disableH2c=true</code>.
+ */
+public final class Http2ServerSettings {
+
+    private Http2ServerSettings() {
+    }
+
+
+    public static HttpServerOptions apply(HttpServerOptions options, JsonObject config) {
+        JsonObject http2 = config.getJsonObject(ServerConfig.HTTP2, new JsonObject());
+        Http2Settings defaults = options.getInitialSettings();
+
+        Http2Settings settings = new Http2Settings()
+            .setMaxConcurrentStreams(http2.getLong("maxConcurrentStreams", defaults.getMaxConcurrentStreams()))
+            .setInitialWindowSize(http2.getInteger("initialWindowSize", defaults.getInitialWindowSize()))
+            .setHeaderTableSize(http2.getLong("headerTableSize", defaults.getHeaderTableSize()))
+            .setMaxFrameSize(http2.getInteger("maxFrameSize", defaults.getMaxFrameSize()))
+            .setMaxHeaderListSize(http2.getLong("maxHeaderListSize", defaults.getMaxHeaderListSize()));
+
+        return options.setInitialSettings(settings)
+                      .setHttp2ConnectionWindowSize(http2.getInteger("connectionWindowSize",
+                                                                     options.getHttp2ConnectionWindowSize()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.manikanta.orchestration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * {@link CompositeFuture} compositions with an overall latency budget, so one slow dependency can't stretch
+ * the whole request:
+ * <ul>
+ * <li>{@link #all}/{@link #any}: same as CompositeFuture's (the composite is the result), but fail with a
+ * {@link TimeoutException} once the budget is spent</li>
+ * <li>{@link #joinWithin}: never fails; completes with the composite as soon as all the futures are done or
+ * the budget is spent, whichever comes first. Then <code>succeeded(i)</code>/<code>resultAt(i)</code> tell
+ * which results made it in time (partial results)</li>
+ * </ul>
+ * The futures keep running after the budget is spent; their late results are just ignored.
+ */
+public final class FanOut {
+
+    private FanOut() {
+    }
+
+
+    public static Future<CompositeFuture> all(Vertx vertx, long budgetMs, Future<?>... futures) {
+        return all(vertx, budgetMs, Arrays.asList(futures));
+    }
+
+    public static Future<CompositeFuture> all(Vertx vertx, long budgetMs, List<Future<?>> futures) {
+        return withDeadline(vertx, CompositeFuture.all(raw(futures)), budgetMs);
+    }
+
+    public static Future<CompositeFuture> any(Vertx vertx, long budgetMs, Future<?>... futures) {
+        return any(vertx, budgetMs, Arrays.asList(futures));
+    }
+
+    public static Future<CompositeFuture> any(Vertx vertx, long budgetMs, List<Future<?>> futures) {
+        return withDeadline(vertx, CompositeFuture.any(raw(futures)), budgetMs);
+    }
+
+    public static Future<CompositeFuture> joinWithin(Vertx vertx, long budgetMs, Future<?>... futures) {
+        return joinWithin(vertx, budgetMs, Arrays.asList(futures));
+    }
+
+    public static Future<CompositeFuture> joinWithin(Vertx vertx, long budgetMs, List<Future<?>> futures) {
+        CompositeFuture composite = CompositeFuture.join(raw(futures));
+        Future<CompositeFuture> result = Future.future();
+
+        long timerId = vertx.setTimer(budgetMs, id -> result.tryComplete(composite));
+        composite.setHandler(ar -> {
+            vertx.cancelTimer(timerId);
+            result.tryComplete(composite);
+        });
+
+        return result;
+    }
+
+
+    // CompositeFuture (3.7) only takes raw lists
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<Future> raw(List<Future<?>> futures) {
+        return (List) futures;
+    }
+
+    // Result of the given future, or a TimeoutException if it isn't completed once the budget is spent
+    public static <T> Future<T> withDeadline(Vertx vertx, Future<T> future, long budgetMs) {
+        Future<T> result = Future.future();
+
+        long timerId = vertx.setTimer(budgetMs,
+                                      id -> result.tryFail(new TimeoutException("Not completed within " + budgetMs + "ms")));
+        future.setHandler(ar -> {
+            vertx.cancelTimer(timerId);
+            if (ar.succeeded()) result.tryComplete(ar.result());
+            else result.tryFail(ar.cause());
+        });
+
+        return result;
+    }
+}
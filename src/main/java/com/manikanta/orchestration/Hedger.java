@@ -0,0 +1,149 @@
+package com.manikanta.orchestration;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Hedged requests for one dependency: when the first attempt isn't done after the dependency's usual p95
+ * latency, a second (identical) attempt is fired and whichever succeeds first wins. The result fails only
+ * when all the attempts failed.
+ * <p>
+ * The hedge delay adapts to the observed latencies (the percentile over the last {@link #WINDOW} calls,
+ * never below <code>minDelayMs</code>), so only the ~5% slowest calls get a second attempt. Attempts must
+ * be idempotent.
+ * <p>
+ * Like {@link com.manikanta.cache.AsyncLoadingCache}, not thread safe: one per verticle instance.
+ * <p>
+ * Metrics (tag <code>dependency</code>): <code>hedged_calls{outcome=not_hedged|hedge_won|first_won}</code>.
+ */
+public class Hedger {
+
+    static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final Vertx vertx;
+    private final double percentile;
+    private final long minDelayNanos;
+
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private long delayNanos;
+
+    private final Counter notHedged;
+    private final Counter hedgeWon;
+    private final Counter firstWon;
+
+
+    public Hedger(Vertx vertx, String dependency, long initialDelayMs, long minDelayMs) {
+        this(vertx, dependency, 0.95, initialDelayMs, minDelayMs);
+    }
+
+    public Hedger(Vertx vertx, String dependency, double percentile, long initialDelayMs, long minDelayMs) {
+        this.vertx = vertx;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.delayNanos = Math.max(minDelayNanos, TimeUnit.MILLISECONDS.toNanos(initialDelayMs));
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.notHedged = calls(registry, dependency, "not_hedged");
+        this.hedgeWon = calls(registry, dependency, "hedge_won");
+        this.firstWon = calls(registry, dependency, "first_won");
+    }
+
+    private static Counter calls(MeterRegistry registry, String dependency, String outcome) {
+        return Counter.builder("hedged_calls")
+                      .tag("dependency", dependency)
+                      .tag("outcome", outcome)
+                      .register(registry);
+    }
+
+
+    public <T> Future<T> call(Supplier<Future<T>> attempt) {
+        Future<T> result = Future.future();
+        Attempts<T> attempts = new Attempts<>(result);
+
+        long delayMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        long timerId = vertx.setTimer(delayMs, id -> {
+            if (!result.isComplete()) {
+                attempts.start(attempt, true);
+            }
+        });
+        attempts.timerId = timerId;
+
+        attempts.start(attempt, false);
+        return result;
+    }
+
+    public long delayMs() {
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+
+
+    private void record(long latencyNanos) {
+        latencies[samples % WINDOW] = latencyNanos;
+        samples++;
+
+        if (samples % RECOMPUTE_EVERY == 0) {
+            int count = Math.min(samples, WINDOW);
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+
+            int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+            delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+        }
+    }
+
+
+    private final class Attempts<T> {
+        private final Future<T> result;
+        private long timerId;
+        private int running;
+        private boolean hedged;
+
+        private Attempts(Future<T> result) {
+            this.result = result;
+        }
+
+        private void start(Supplier<Future<T>> attempt, boolean hedge) {
+            long startedAt = System.nanoTime();
+            running++;
+            hedged |= hedge;
+
+            Future<T> future;
+            try {
+                future = attempt.get();
+            } catch (RuntimeException e) {
+                future = Future.failedFuture(e);
+            }
+
+            future.setHandler(ar -> completed(ar, hedge, startedAt));
+        }
+
+        private void completed(AsyncResult<T> ar, boolean hedge, long startedAt) {
+            running--;
+
+            if (ar.succeeded()) {
+                record(System.nanoTime() - startedAt);
+
+                if (result.tryComplete(ar.result())) {
+                    vertx.cancelTimer(timerId);
+                    if (!hedged) notHedged.increment();
+                    else if (hedge) hedgeWon.increment();
+                    else firstWon.increment();
+                }
+            } else if (running == 0) {
+                // Nothing left running (a first attempt failing before the hedge delay isn't retried)
+                vertx.cancelTimer(timerId);
+                result.tryFail(ar.cause());
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.manikanta.proxy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import com.manikanta.PreEncodedResponse;
+import com.manikanta.ServerMetrics;
+import com.manikanta.routing.TrieRouter;
+import com.manikanta.upstream.UpstreamClient;
+import com.manikanta.upstream.UpstreamClients;
+import io.micrometer.core.instrument.Counter;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.ConnectionPoolTooBusyException;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.Pump;
+
+/**
+ * Reverse proxy: requests whose path is under a configured prefix are forwarded to the upstream of that
+ * prefix (longest prefix wins, see {@link TrieRouter}), path and query unchanged:
+ * <pre>
+ * "proxy": { "/api/quotes": "quotes", "/api": "crm" }
+ * </pre>
+ * Bodies are streamed both ways with back-pressure (request body pumped to the upstream request, upstream
+ * response piped to the response), never buffered: a slow client stops the reads from the upstream and a slow upstream stops the
+ * reads from the client. Connections come from the pooled {@link UpstreamClient}s.
+ * <p>
+ * Hop-by-hop headers (RFC 7230 section 6.1: <code>Connection</code>, the ones it lists, <code>Keep-Alive</code>,
+ * <code>Transfer-Encoding</code>...) apply to a single connection and are not forwarded; framing is redone on
+ * each side. <code>X-Forwarded-For/Proto/Host</code> are added to the upstream request.
+ * <p>
+ * Failures before the upstream response head are answered with 502 (upstream error), 503 (pool wait queue
+ * full) or 504 (timeout), counted by <code>proxy_errors</code>. Failures after it close the client connection,
+ * as the status is already out.
+ * <p>
+ * Not thread safe: one per verticle instance (as its {@link UpstreamClients}).
+ */
+public class ReverseProxy {
+
+    static final PreEncodedResponse BAD_GATEWAY = PreEncodedResponse.of(502, "text/plain", "Bad gateway");
+    static final PreEncodedResponse SERVICE_UNAVAILABLE = PreEncodedResponse.of(503, "text/plain", "Service unavailable");
+    static final PreEncodedResponse GATEWAY_TIMEOUT = PreEncodedResponse.of(504, "text/plain", "Gateway timeout");
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+        "connection",
+        "keep-alive",
+        "proxy-authenticate",
+        "proxy-authorization",
+        "proxy-connection",
+        "te",
+        "trailer",
+        "transfer-encoding",
+        "upgrade"));
+
+    private static final CharSequence X_FORWARDED_FOR = HttpHeaders.createOptimized("x-forwarded-for");
+    private static final CharSequence X_FORWARDED_PROTO = HttpHeaders.createOptimized("x-forwarded-proto");
+    private static final CharSequence X_FORWARDED_HOST = HttpHeaders.createOptimized("x-forwarded-host");
+
+    private final List<Route> routes = new ArrayList<>();
+
+
+    public ReverseProxy(UpstreamClients upstreams, JsonObject routesConfig) {
+        for (Map.Entry<String, Object> route : routesConfig) {
+            routes.add(new Route(route.getKey(), upstreams.client((String) route.getValue())));
+        }
+    }
+
+
+    /**
+     * Adds the proxy routes (prefix routes, for any method) to the router.
+     */
+    public TrieRouter.Builder addRoutes(TrieRouter.Builder router) {
+        routes.forEach(route -> router.route(null, route.prefix + "/*", (request, params) -> proxy(request, route)));
+        return router;
+    }
+
+    private void proxy(HttpServerRequest request, Route route) {
+        HttpServerResponse response = request.response();
+        boolean[] failed = new boolean[1];
+
+        // Paused until the upstream request is there to take the body
+        request.pause();
+
+        HttpClientRequest upstreamRequest = route.upstream.request(
+            request.method(),
+            request.uri(),
+            req -> prepareUpstreamRequest(request, req),
+            ar -> {
+                if (ar.failed()) {
+                    failed[0] = true;
+                    fail(route, response, ar.cause());
+                } else {
+                    forwardResponse(ar.result(), response);
+                }
+            });
+
+        // Request body: a Pump rather than a pipe, which would take over the upstream request's exception handler
+        Pump.pump(request, upstreamRequest).start();
+        request.endHandler(v -> {
+            if (!failed[0]) {
+                upstreamRequest.end();
+            }
+        });
+        request.resume();
+
+        // Client gone: no point in keeping the upstream stream/connection busy
+        response.closeHandler(v -> upstreamRequest.reset());
+    }
+
+    private void prepareUpstreamRequest(HttpServerRequest request, HttpClientRequest upstreamRequest) {
+        if (request.method() == HttpMethod.OTHER) {
+            upstreamRequest.setRawMethod(request.rawMethod());
+        }
+
+        MultiMap headers = request.headers();
+        copyEndToEndHeaders(headers, upstreamRequest.headers());
+
+        // Host is the upstream's (set by the client), the original one goes in X-Forwarded-Host
+        upstreamRequest.headers().remove(HttpHeaders.HOST);
+        String host = request.host();
+        if (host != null) {
+            upstreamRequest.putHeader(X_FORWARDED_HOST, host);
+        }
+
+        String forwardedFor = headers.get(X_FORWARDED_FOR);
+        String remoteHost = request.remoteAddress().host();
+        upstreamRequest.putHeader(X_FORWARDED_FOR, forwardedFor != null ? forwardedFor + ", " + remoteHost : remoteHost);
+        upstreamRequest.putHeader(X_FORWARDED_PROTO, request.isSSL() ? "https" : "http");
+
+        // Content-Length is end to end; otherwise the body (if any) is re-chunked
+        if (!headers.contains(HttpHeaders.CONTENT_LENGTH) && hasBody(request)) {
+            upstreamRequest.setChunked(true);
+        }
+    }
+
+    private void forwardResponse(HttpClientResponse upstreamResponse, HttpServerResponse response) {
+        response.setStatusCode(upstreamResponse.statusCode())
+                .setStatusMessage(upstreamResponse.statusMessage());
+
+        copyEndToEndHeaders(upstreamResponse.headers(), response.headers());
+        if (!response.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
+            response.setChunked(true);
+        }
+
+        upstreamResponse.pipe()
+                        .endOnFailure(false)
+                        .to(response, piped -> {
+                            if (piped.failed()) {
+                                response.close(); // Truncated: must not look like a complete response
+                            }
+                        });
+    }
+
+    private void fail(Route route, HttpServerResponse response, Throwable failure) {
+        PreEncodedResponse error;
+        if (failure instanceof TimeoutException) {
+            error = GATEWAY_TIMEOUT;
+        } else if (failure instanceof ConnectionPoolTooBusyException) {
+            error = SERVICE_UNAVAILABLE;
+        } else {
+            error = BAD_GATEWAY;
+        }
+
+        route.errors(error).increment();
+
+        if (!response.closed() && !response.headWritten()) {
+            error.send(response);
+        }
+    }
+
+
+    private static void copyEndToEndHeaders(MultiMap from, MultiMap to) {
+        Set<String> connectionHeaders = connectionHeaders(from);
+
+        for (Map.Entry<String, String> header : from) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (!HOP_BY_HOP_HEADERS.contains(name) && !connectionHeaders.contains(name)) {
+                to.add(header.getKey(), header.getValue());
+            }
+        }
+    }
+
+    // Headers listed in Connection are hop-by-hop as well
+    private static Set<String> connectionHeaders(MultiMap headers) {
+        String connection = headers.get(HttpHeaders.CONNECTION);
+        if (connection == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> names = new HashSet<>();
+        for (String name : connection.split(",")) {
+            names.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+        return names;
+    }
+
+    private static boolean hasBody(HttpServerRequest request) {
+        if (request.version() == HttpVersion.HTTP_2) {
+            // No framing headers in HTTP/2: a body comes as DATA frames, expected for these methods only
+            HttpMethod method = request.method();
+            return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH;
+        }
+        return request.headers().contains(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+
+    private static final class Route {
+        private final String prefix;
+        private final UpstreamClient upstream;
+        private final Counter badGateway;
+        private final Counter serviceUnavailable;
+        private final Counter gatewayTimeout;
+
+        private Route(String prefix, UpstreamClient upstream) {
+            this.prefix = prefix;
+            this.upstream = upstream;
+            this.badGateway = errorCounter(upstream, 502);
+            this.serviceUnavailable = errorCounter(upstream, 503);
+            this.gatewayTimeout = errorCounter(upstream, 504);
+        }
+
+        private Counter errors(PreEncodedResponse error) {
+            if (error == GATEWAY_TIMEOUT) return gatewayTimeout;
+            if (error == SERVICE_UNAVAILABLE) return serviceUnavailable;
+            return badGateway;
+        }
+
+        private static Counter errorCounter(UpstreamClient upstream, int status) {
+            return Counter.builder("proxy_errors")
+                          .description("Proxied requests answered with an error, as the upstream failed")
+                          .tag("upstream", upstream.name())
+                          .tag("status", String.valueOf(status))
+                          .register(ServerMetrics.registry());
+        }
+    }
+}
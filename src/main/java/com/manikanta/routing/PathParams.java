@@ -0,0 +1,44 @@
+package com.manikanta.routing;
+
+/**
+ * Path parameter values of a matched route: <code>:name</code> segments, or the capture groups of a regex
+ * route (<code>param0</code>, <code>param1</code>...).
+ */
+public final class PathParams {
+
+    static final PathParams NONE = new PathParams(new String[0], new String[0]);
+
+    private final String[] names;
+    private final String[] values;
+
+
+    PathParams(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+
+    // Null when the route has no such parameter
+    public String get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(names[i]).append('=').append(values[i]);
+        }
+        return builder.append('}').toString();
+    }
+}
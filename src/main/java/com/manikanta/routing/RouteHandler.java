@@ -0,0 +1,12 @@
+package com.manikanta.routing;
+
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Handler of a {@link TrieRouter} route: the request, and the values of the path parameters of the route.
+ */
+@FunctionalInterface
+public interface RouteHandler {
+
+    void handle(HttpServerRequest request, PathParams params);
+}
@@ -0,0 +1,369 @@
+package com.manikanta.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Router whose routes are compiled once (on {@link Builder#build()}) into a trie of path segments, so matching
+ * a request costs one lookup per segment of its path, whatever the number of routes. vertx-web's
+ * <code>Router</code> tries the routes one after the other (a regex match for most of them), so its cost grows
+ * with the number of routes.
+ * <p>
+ * Route paths:
+ * <ul>
+ * <li><code>/orders/open</code>: exact (trailing and duplicate slashes are ignored)</li>
+ * <li><code>/users/:id/orders</code>: <code>:name</code> segments match any one segment</li>
+ * <li><code>/static/*</code>: prefix, matches <code>/static</code> and everything below it</li>
+ * <li>{@link Builder#regex}: regular expression on the whole path, only tried when no trie route matches</li>
+ * </ul>
+ * Precedence: exact segments over parameters (per segment, with backtracking), then the longest prefix route,
+ * then the regex routes in declaration order, then the not found handler. Routes are per method, or for any
+ * method when <code>method</code> is null; a method specific route wins over an any method one.
+ * <p>
+ * Unlike vertx-web, there is no <code>next()</code>: exactly one handler is called per request. Immutable once
+ * built, so one router can be shared by all the verticle instances.
+ */
+public final class TrieRouter implements Handler<HttpServerRequest> {
+
+    private final Node root;
+    private final Map<String, Handlers> staticRoutes; // Fast path for the paths without parameter segments
+    private final List<RegexRoute> regexRoutes;
+    private final RouteHandler notFound;
+
+
+    private TrieRouter(Builder builder) {
+        this.root = builder.root;
+        this.staticRoutes = builder.staticRoutes;
+        this.regexRoutes = new ArrayList<>(builder.regexRoutes);
+        this.notFound = builder.notFound;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    @Override
+    public void handle(HttpServerRequest request) {
+        Match match = match(request.method(), request.path());
+        if (match != null) {
+            match.handler.handle(request, match.params);
+        } else {
+            notFound.handle(request, PathParams.NONE);
+        }
+    }
+
+    /**
+     * Returns the route matching the request, <code>null</code> if none does.
+     */
+    public Match match(HttpMethod method, String path) {
+        Handlers exact = staticRoutes.get(normalize(path));
+        if (exact != null) {
+            Route route = exact.get(method);
+            if (route != null) {
+                return new Match(route.handler, PathParams.NONE);
+            }
+        }
+
+        Search search = new Search(method, path);
+        search.find(root, 0, 0);
+        if (search.found != null) {
+            return new Match(search.found.handler, search.found.params(search.foundValues));
+        }
+        if (search.prefix != null) {
+            return new Match(search.prefix.handler, search.prefix.params(search.prefixValues));
+        }
+
+        for (RegexRoute regexRoute : regexRoutes) {
+            if (regexRoute.method != null && regexRoute.method != method) {
+                continue;
+            }
+            Matcher matcher = regexRoute.pattern.matcher(path);
+            if (matcher.matches()) {
+                return new Match(regexRoute.handler, regexRoute.params(matcher));
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Path without duplicate & trailing slashes, as the routes are matched (returned as is when already
+     * normalized, the common case).
+     */
+    public static String normalize(String path) {
+        int length = path.length();
+        boolean normalized = length > 0 && path.charAt(0) == '/' && path.indexOf("//") < 0
+            && (length == 1 || path.charAt(length - 1) != '/');
+        if (normalized) {
+            return path;
+        }
+
+        StringBuilder builder = new StringBuilder(length + 1);
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                builder.append('/').append(segment);
+            }
+        }
+        return builder.length() == 0 ? "/" : builder.toString();
+    }
+
+
+    public static final class Match {
+        private final RouteHandler handler;
+        private final PathParams params;
+
+        private Match(RouteHandler handler, PathParams params) {
+            this.handler = handler;
+            this.params = params;
+        }
+
+        public RouteHandler handler() {
+            return handler;
+        }
+
+        public PathParams params() {
+            return params;
+        }
+    }
+
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private final Map<String, Handlers> staticRoutes = new HashMap<>();
+        private final List<RegexRoute> regexRoutes = new ArrayList<>();
+        private RouteHandler notFound = (request, params) -> request.response().setStatusCode(404).end();
+
+        private Builder() {
+        }
+
+
+        public Builder get(String path, RouteHandler handler) {
+            return route(HttpMethod.GET, path, handler);
+        }
+
+        public Builder post(String path, RouteHandler handler) {
+            return route(HttpMethod.POST, path, handler);
+        }
+
+        /**
+         * Adds a route; <code>method</code> null for any method. A route for the same method & path replaces
+         * the previous one.
+         */
+        public Builder route(HttpMethod method, String path, RouteHandler handler) {
+            List<String> segments = segments(path);
+
+            boolean prefix = !segments.isEmpty() && segments.get(segments.size() - 1).equals("*");
+            if (prefix) {
+                segments.remove(segments.size() - 1);
+            }
+
+            Node node = root;
+            List<String> paramNames = new ArrayList<>();
+            for (String segment : segments) {
+                if (segment.equals("*")) {
+                    throw new IllegalArgumentException("'*' is only allowed as the last segment: " + path);
+                }
+                if (segment.startsWith(":")) {
+                    paramNames.add(segment.substring(1));
+                    if (node.paramChild == null) {
+                        node.paramChild = new Node();
+                    }
+                    node = node.paramChild;
+                } else {
+                    node = node.children.computeIfAbsent(segment, key -> new Node());
+                }
+            }
+
+            Route route = new Route(handler, paramNames.toArray(new String[0]));
+            if (prefix) {
+                node.prefix.put(method, route);
+            } else {
+                node.exact.put(method, route);
+                if (paramNames.isEmpty()) {
+                    staticRoutes.computeIfAbsent(normalize(path), key -> new Handlers()).put(method, route);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds a route matching the whole path with a regular expression; the capture groups are the
+         * parameters <code>param0</code>, <code>param1</code>...
+         */
+        public Builder regex(HttpMethod method, String regex, RouteHandler handler) {
+            regexRoutes.add(new RegexRoute(method, Pattern.compile(regex), handler));
+            return this;
+        }
+
+        public Builder notFound(RouteHandler handler) {
+            this.notFound = handler;
+            return this;
+        }
+
+        public TrieRouter build() {
+            return new TrieRouter(this);
+        }
+
+
+        private static List<String> segments(String path) {
+            if (!path.startsWith("/")) {
+                throw new IllegalArgumentException("Route path must start with '/': " + path);
+            }
+
+            List<String> segments = new ArrayList<>();
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                }
+            }
+            return segments;
+        }
+    }
+
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node paramChild;
+        private final Handlers exact = new Handlers();
+        private final Handlers prefix = new Handlers();
+    }
+
+    private static final class Handlers {
+        private final Map<HttpMethod, Route> byMethod = new EnumMap<>(HttpMethod.class);
+        private Route anyMethod;
+
+        private void put(HttpMethod method, Route route) {
+            if (method == null) anyMethod = route;
+            else byMethod.put(method, route);
+        }
+
+        private Route get(HttpMethod method) {
+            Route route = byMethod.get(method);
+            return route != null ? route : anyMethod;
+        }
+    }
+
+    private static final class Route {
+        private final RouteHandler handler;
+        private final String[] paramNames;
+
+        private Route(RouteHandler handler, String[] paramNames) {
+            this.handler = handler;
+            this.paramNames = paramNames;
+        }
+
+        private PathParams params(String[] values) {
+            if (paramNames.length == 0) {
+                return PathParams.NONE;
+            }
+            String[] routeValues = new String[paramNames.length];
+            System.arraycopy(values, 0, routeValues, 0, paramNames.length);
+            return new PathParams(paramNames, routeValues);
+        }
+    }
+
+    private static final class RegexRoute {
+        private final HttpMethod method;
+        private final Pattern pattern;
+        private final RouteHandler handler;
+
+        private RegexRoute(HttpMethod method, Pattern pattern, RouteHandler handler) {
+            this.method = method;
+            this.pattern = pattern;
+            this.handler = handler;
+        }
+
+        private PathParams params(Matcher matcher) {
+            int groups = matcher.groupCount();
+            if (groups == 0) {
+                return PathParams.NONE;
+            }
+
+            String[] names = new String[groups];
+            String[] values = new String[groups];
+            for (int i = 0; i < groups; i++) {
+                names[i] = "param" + i;
+                values[i] = matcher.group(i + 1);
+            }
+            return new PathParams(names, values);
+        }
+    }
+
+    // Depth first search of the trie: exact segment first, then the parameter one (backtracking on no match)
+    private static final class Search {
+        private final HttpMethod method;
+        private final String path;
+        private String[] values = new String[4];
+
+        private Route found;
+        private String[] foundValues;
+        private Route prefix;
+        private String[] prefixValues;
+        private int prefixDepth = -1;
+
+        private Search(HttpMethod method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        // pos: start of the remaining path; params: number of parameter values captured so far
+        private boolean find(Node node, int pos, int params) {
+            int length = path.length();
+            while (pos < length && path.charAt(pos) == '/') {
+                pos++;
+            }
+
+            Route prefixRoute = node.prefix.get(method);
+            if (prefixRoute != null && pos > prefixDepth) {
+                prefix = prefixRoute;
+                prefixValues = values.clone();
+                prefixDepth = pos;
+            }
+
+            if (pos == length) {
+                Route route = node.exact.get(method);
+                if (route != null) {
+                    found = route;
+                    foundValues = values;
+                    return true;
+                }
+                return false;
+            }
+
+            int end = path.indexOf('/', pos);
+            if (end < 0) {
+                end = length;
+            }
+            String segment = path.substring(pos, end);
+
+            Node child = node.children.get(segment);
+            if (child != null && find(child, end, params)) {
+                return true;
+            }
+
+            if (node.paramChild != null) {
+                if (params == values.length) {
+                    values = Arrays.copyOf(values, params * 2);
+                }
+                values[params] = segment;
+                return find(node.paramChild, end, params + 1);
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.manikanta.staticfiles;
+
+/**
+ * Single byte range of a <code>Range</code> header (RFC 7233): <code>bytes=0-499</code>, <code>bytes=500-</code>
+ * or <code>bytes=-500</code> (last 500 bytes).
+ * <p>
+ * Multiple ranges (<code>bytes=0-1,5-6</code>) would need a multipart/byteranges body; they are ignored, and
+ * the whole file sent, which the RFC allows.
+ */
+final class ByteRange {
+
+    // Satisfiable by no part of the file: 416
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    final long start;
+    final long end; // Inclusive
+
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+
+    /**
+     * Returns the range of a file of the given size, {@link #UNSATISFIABLE}, or <code>null</code> when the
+     * header is absent, malformed or not a single range (whole file).
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        int dash = header.indexOf('-', 6);
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = header.substring(6, dash).trim();
+            String last = header.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (end < start) {
+                return null; // Invalid, ignored
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    long length() {
+        return end - start + 1;
+    }
+
+    String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
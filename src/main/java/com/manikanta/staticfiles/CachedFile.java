@@ -0,0 +1,159 @@
+package com.manikanta.staticfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.manikanta.compression.CompressionPolicy;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+
+/**
+ * Content of a small file, with its encoded variants and validators, held by the {@link HotFileCache}.
+ * <p>
+ * Variants are off-heap (direct) buffers shared by all the requests and event loops; they are freed by the
+ * GC once evicted and no longer written out, so an evicted file still being sent is never freed under Netty.
+ * <ul>
+ * <li>gzip: <code>file.gz</code> when present next to the file, else compressed at the best level (once per
+ * load, when the {@link CompressionPolicy} allows it)</li>
+ * <li>br: only from <code>file.br</code> (no Brotli encoder on the classpath)</li>
+ * </ul>
+ * A variant is kept only when smaller than the file. A sibling older than the file is ignored: it was
+ * compressed from a previous version.
+ */
+final class CachedFile {
+
+    private static final CharSequence GZIP = HttpHeaders.createOptimized("gzip");
+    private static final CharSequence BR = HttpHeaders.createOptimized("br");
+
+    static final long ABSENT = -1; // Modification time of a missing sibling
+
+    final Path file;
+    final long size;
+    final long lastModifiedMillis;
+    final long gzipModifiedMillis; // Of the siblings, used or not, so that a (re)compressed one is picked up
+    final long brModifiedMillis;
+
+    final CharSequence contentType;
+    final String etagValue; // Without quotes nor variant suffix, see StaticFiles#notModified
+    final CharSequence lastModified;
+
+    final Variant identity;
+    final Variant gzip; // Null when absent or not smaller than the identity
+    final Variant br;
+    final boolean compressible; // Worth compressing on the fly (when no variant is sent)
+    final long weight; // Bytes held, all variants
+
+    volatile boolean referenced; // Hit since the last eviction sweep
+    volatile long checkedAt; // Last time the file on disk was compared with the cached one (nanos)
+
+
+    private CachedFile(Path file, long lastModifiedMillis, long gzipModifiedMillis, long brModifiedMillis,
+                       String contentType, byte[] content, byte[] gzipped, byte[] brotli) {
+        this.file = file;
+        this.size = content.length;
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.gzipModifiedMillis = gzipModifiedMillis;
+        this.brModifiedMillis = brModifiedMillis;
+
+        this.contentType = HttpHeaders.createOptimized(contentType);
+        this.etagValue = StaticFiles.etagValue(size, lastModifiedMillis);
+        this.lastModified = HttpHeaders.createOptimized(StaticFiles.httpDate(lastModifiedMillis));
+
+        this.identity = new Variant(HttpHeaders.IDENTITY, etagValue, content);
+        this.gzip = gzipped != null && gzipped.length < content.length ? new Variant(GZIP, etagValue + "-gzip", gzipped) : null;
+        this.br = brotli != null && brotli.length < content.length ? new Variant(BR, etagValue + "-br", brotli) : null;
+        // Not worth compressing on the fly what doesn't get smaller at the best level
+        this.compressible = gzip != null;
+
+        this.weight = size
+            + (gzip != null ? gzip.body.length() : 0)
+            + (br != null ? br.body.length() : 0);
+        this.checkedAt = System.nanoTime();
+    }
+
+
+    /**
+     * Reads (and compresses) the file; blocking.
+     */
+    static CachedFile load(Path file, String contentType, CompressionPolicy policy) throws IOException {
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        byte[] content = Files.readAllBytes(file);
+
+        Path gzipFile = gzipSibling(file);
+        long gzipModified = lastModifiedIfExists(gzipFile);
+        byte[] gzipped = gzipModified >= lastModified ? Files.readAllBytes(gzipFile) : null;
+        if (gzipped == null && policy.shouldCompress(contentType, content.length)) {
+            gzipped = gzip(content);
+        }
+
+        Path brFile = brSibling(file);
+        long brModified = lastModifiedIfExists(brFile);
+        byte[] brotli = brModified >= lastModified ? Files.readAllBytes(brFile) : null;
+
+        return new CachedFile(file, lastModified, gzipModified, brModified, contentType, content, gzipped, brotli);
+    }
+
+    static Path gzipSibling(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+
+    static Path brSibling(Path file) {
+        return file.resolveSibling(file.getFileName() + ".br");
+    }
+
+
+    /**
+     * Whether the file and its siblings on disk are still the ones cached.
+     */
+    boolean matches(long size, long lastModifiedMillis, long gzipModifiedMillis, long brModifiedMillis) {
+        return this.size == size
+            && this.lastModifiedMillis == lastModifiedMillis
+            && this.gzipModifiedMillis == gzipModifiedMillis
+            && this.brModifiedMillis == brModifiedMillis;
+    }
+
+
+    private static long lastModifiedIfExists(Path file) throws IOException {
+        return Files.isRegularFile(file) ? Files.getLastModifiedTime(file).toMillis() : ABSENT;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION); // Once per load, so worth the extra CPU
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+
+    static final class Variant {
+
+        final CharSequence encoding;
+        final CharSequence etag;
+        final CharSequence length;
+        final Buffer body;
+
+
+        private Variant(CharSequence encoding, String etag, byte[] content) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+            direct.put(content).flip();
+
+            this.encoding = encoding;
+            this.etag = HttpHeaders.createOptimized('"' + etag + '"');
+            this.length = HttpHeaders.createOptimized(String.valueOf(content.length));
+            // Wrapping a JDK direct buffer: Netty never frees it (the GC does), unreleasable keeps the reference
+            // count out of the way of the concurrent writes
+            this.body = Buffer.buffer(Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(direct).asReadOnly()));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.manikanta.staticfiles;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Small hot files, bounded by the bytes they hold (all variants).
+ * <p>
+ * Reads are lock-free map lookups, done by all the event loops. When an insertion goes over the bound, a
+ * CLOCK sweep evicts the files not hit since the previous sweep (the others get a second chance); only
+ * the sweeps are serialized.
+ */
+final class HotFileCache {
+
+    private final long maxBytes;
+    private final Map<String, CachedFile> files = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+
+    HotFileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.hits = Counter.builder("static_cache_hits")
+                           .description("Static file requests served from the hot file cache")
+                           .register(registry);
+        this.misses = Counter.builder("static_cache_misses")
+                             .description("Static file requests served from disk")
+                             .register(registry);
+        this.evictions = Counter.builder("static_cache_evictions")
+                                .description("Files evicted from the hot file cache")
+                                .register(registry);
+        Gauge.builder("static_cache_bytes", bytes, AtomicLong::get)
+             .description("Bytes held by the hot file cache")
+             .register(registry);
+    }
+
+
+    CachedFile get(String path) {
+        CachedFile file = files.get(path);
+        if (file == null) {
+            return null;
+        }
+
+        hits.increment();
+        if (!file.referenced) {
+            file.referenced = true; // Written only when needed, the flag is read by all the loops
+        }
+        return file;
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Caches the file, evicting others if needed; returns false when the file alone is over the bound.
+     */
+    boolean put(String path, CachedFile file) {
+        if (file.weight > maxBytes) {
+            return false;
+        }
+
+        CachedFile previous = files.put(path, file);
+        bytes.addAndGet(file.weight - (previous != null ? previous.weight : 0));
+
+        if (bytes.get() > maxBytes) {
+            evict();
+        }
+        return true;
+    }
+
+    void remove(String path, CachedFile file) {
+        if (files.remove(path, file)) {
+            bytes.addAndGet(-file.weight);
+        }
+    }
+
+    boolean isFull(long weight) {
+        return bytes.get() + weight > maxBytes;
+    }
+
+    int size() {
+        return files.size();
+    }
+
+    long bytes() {
+        return bytes.get();
+    }
+
+
+    private synchronized void evict() {
+        // Two passes at most: the first one may only clear the reference bits
+        for (int pass = 0; pass < 2; pass++) {
+            for (Map.Entry<String, CachedFile> entry : files.entrySet()) {
+                if (bytes.get() <= maxBytes) {
+                    return;
+                }
+
+                CachedFile file = entry.getValue();
+                if (file.referenced) {
+                    file.referenced = false;
+                } else if (files.remove(entry.getKey(), file)) {
+                    bytes.addAndGet(-file.weight);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+}
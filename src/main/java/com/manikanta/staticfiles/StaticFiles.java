@@ -0,0 +1,547 @@
+package com.manikanta.staticfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.manikanta.ServerConfig;
+import com.manikanta.compression.AcceptEncoding;
+import com.manikanta.compression.CompressionPolicy;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileProps;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Static files of a directory, served two ways:
+ * <ul>
+ * <li>small files (up to <code>staticCacheMaxFileSize</code>) from the {@link HotFileCache}, off-heap, with
+ * their pre-compressed variants (see {@link CachedFile}); the cache is warmed up at startup, and the files
+ * missing from it are loaded on first request</li>
+ * <li>larger files with <code>sendFile</code>: zero-copy (<code>sendfile(2)</code>, the content never enters
+ * the JVM) when the connection has no TLS and no compression; otherwise Vert.x falls back to reading
+ * 8KB chunks</li>
+ * </ul>
+ * Both support conditional requests (ETag / If-None-Match, Last-Modified / If-Modified-Since: 304) and
+ * single byte ranges (Range / If-Range: 206, 416). Ranges are always sent uncompressed.
+ * <p>
+ * Nothing blocks the event loop: the files on disk are checked (<code>fileSystem().props</code>) and loaded
+ * on worker threads. A cached file is served right away, and compared with the file on disk (and its
+ * <code>.gz</code>/<code>.br</code> siblings) at most every <code>staticCacheRevalidateMs</code>; when changed,
+ * it is dropped and reloaded by the next request.
+ * <p>
+ * <code>x.gz</code> and <code>x.br</code> are not served on their own when <code>x</code> exists (they are
+ * its variants); without <code>x</code> (a <code>.tar.gz</code> download for instance) they are plain files.
+ * <p>
+ * Zero-copy note: Vert.x (3.7) puts the compressor in the pipeline of every HTTP/1 connection when
+ * compression is supported, and then never uses zero-copy, even for an uncompressed response. A server
+ * mostly serving large downloads should run with <code>compression: false</code>.
+ * <p>
+ * HTTP/2: Netty's HTTP/2 compressor gzips any response whose Content-Encoding is gzip, even if it already
+ * is. So when the server compression is on, the gzip variant is not sent over HTTP/2: the file is sent as is
+ * and compressed by the server (br variants are not affected).
+ * <p>
+ * One instance per Vertx and directory, shared by the verticle instances.
+ */
+public final class StaticFiles implements Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StaticFiles.class);
+
+    public static final long DEFAULT_CACHE_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_CACHE_MAX_FILE_SIZE = 1024 * 1024;
+    public static final long DEFAULT_CACHE_REVALIDATE_MS = 1_000;
+
+    private static final String SHARED_MAP = StaticFiles.class.getName();
+
+    // IMF-fixdate (RFC 7231), RFC_1123_DATE_TIME doesn't zero-pad the day of month
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+                                                                        .withZone(ZoneOffset.UTC);
+
+    private static final CharSequence VARY = HttpHeaders.createOptimized("vary");
+    private static final CharSequence ETAG = HttpHeaders.createOptimized("etag");
+    private static final CharSequence LAST_MODIFIED = HttpHeaders.createOptimized("last-modified");
+    private static final CharSequence ACCEPT_RANGES = HttpHeaders.createOptimized("accept-ranges");
+    private static final CharSequence BYTES = HttpHeaders.createOptimized("bytes");
+    private static final CharSequence CONTENT_RANGE = HttpHeaders.createOptimized("content-range");
+    private static final CharSequence RANGE = HttpHeaders.createOptimized("range");
+    private static final CharSequence IF_RANGE = HttpHeaders.createOptimized("if-range");
+
+    private final Vertx vertx;
+    private final Path root;
+    private final CompressionPolicy policy;
+    private final HotFileCache cache;
+    private final long maxCachedFileSize;
+    private final long revalidateNanos;
+
+
+    private StaticFiles(Vertx vertx, Path root, JsonObject config, CompressionPolicy policy) {
+        this.vertx = vertx;
+        this.root = root.toAbsolutePath().normalize();
+        this.policy = policy;
+        this.cache = new HotFileCache(config.getLong(ServerConfig.STATIC_CACHE_SIZE, DEFAULT_CACHE_SIZE));
+        this.maxCachedFileSize = config.getLong(ServerConfig.STATIC_CACHE_MAX_FILE_SIZE, DEFAULT_CACHE_MAX_FILE_SIZE);
+        this.revalidateNanos = TimeUnit.MILLISECONDS.toNanos(
+            config.getLong(ServerConfig.STATIC_CACHE_REVALIDATE_MS, DEFAULT_CACHE_REVALIDATE_MS));
+    }
+
+
+    /**
+     * Returns the static files of the given directory, warming up the cache (on a worker thread) on first call.
+     */
+    public static Future<StaticFiles> get(Vertx vertx, Path root, JsonObject config, CompressionPolicy policy) {
+        Future<StaticFiles> future = Future.future();
+        String key = root.toAbsolutePath().normalize().toString();
+
+        vertx.<StaticFiles>executeBlocking(blocking -> {
+            // Instances starting together wait for the first one instead of loading the files again
+            synchronized (StaticFiles.class) {
+                LocalMap<String, StaticFiles> shared = vertx.sharedData().getLocalMap(SHARED_MAP);
+                StaticFiles staticFiles = shared.get(key);
+                try {
+                    if (staticFiles == null) {
+                        staticFiles = new StaticFiles(vertx, root, config, policy);
+                        staticFiles.warmUp();
+                        shared.put(key, staticFiles);
+                    }
+                    blocking.complete(staticFiles);
+                } catch (IOException e) {
+                    blocking.fail(e);
+                }
+            }
+        }, false, future);
+
+        return future;
+    }
+
+    // Blocking
+    private void warmUp() throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IOException(root + " is not a directory");
+        }
+
+        try (Stream<Path> walk = Files.walk(root)) {
+            Iterator<Path> files = walk.filter(Files::isRegularFile)
+                                       .filter(file -> !isVariant(file))
+                                       .iterator();
+            while (files.hasNext()) {
+                Path file = files.next();
+                long size = Files.size(file);
+                if (size > maxCachedFileSize) {
+                    continue;
+                }
+                if (cache.isFull(size)) {
+                    break; // The rest is loaded on demand
+                }
+                cache.put(relativePath(file), CachedFile.load(file, contentType(file), policy));
+            }
+        }
+
+        LOG.info("Static files from {}: {} cached ({} bytes), zero-copy sendFile for larger ones {}",
+                 root, cache.size(), cache.bytes(),
+                 policy.enabled() ? "disabled (compression on)" : "enabled (without TLS)");
+    }
+
+
+    /**
+     * Sends the file at <code>path</code> (relative to the root, starting with "/"); 404 when there is none,
+     * 400 when the path is not properly percent-encoded.
+     */
+    public void handle(HttpServerRequest request, String path) {
+        if (path.indexOf('%') >= 0) {
+            try {
+                // A path, not a query string: '+' is a plus sign
+                path = QueryStringDecoder.decodeComponent(path.replace("+", "%2B"));
+            } catch (IllegalArgumentException e) {
+                badRequest(request.response()); // Malformed escape ("%zz", trailing '%')
+                return;
+            }
+        }
+
+        CachedFile cached = cache.get(path);
+        if (cached != null) {
+            revalidate(path, cached);
+            send(request, cached);
+            return;
+        }
+
+        Path file;
+        try {
+            file = root.resolve(path.startsWith("/") ? path.substring(1) : path).normalize();
+        } catch (InvalidPathException e) {
+            notFound(request.response()); // Not a file name on this system (NUL for instance)
+            return;
+        }
+        if (!file.startsWith(root) || file.equals(root)) {
+            notFound(request.response());
+            return;
+        }
+
+        // Cached under the normalized path only ("/css/../app.js" is "/app.js")
+        String relativePath = relativePath(file);
+        if (!relativePath.equals(path)) {
+            cached = cache.get(relativePath);
+            if (cached != null) {
+                revalidate(relativePath, cached);
+                send(request, cached);
+                return;
+            }
+        }
+
+        cache.miss();
+        Path source = variantSource(file);
+        if (source == null) {
+            serve(request, relativePath, file);
+            return;
+        }
+        vertx.fileSystem().exists(source.toString(), ar -> {
+            if (ar.failed() || ar.result()) {
+                notFound(request.response()); // A variant, only sent for its source
+            } else {
+                serve(request, relativePath, file);
+            }
+        });
+    }
+
+    private void serve(HttpServerRequest request, String relativePath, Path file) {
+        vertx.fileSystem().props(file.toString(), ar -> {
+            if (ar.failed() || !ar.result().isRegularFile()) {
+                notFound(request.response());
+            } else if (ar.result().size() <= maxCachedFileSize) {
+                load(request, relativePath, file);
+            } else {
+                sendFile(request, file, ar.result());
+            }
+        });
+    }
+
+    private void load(HttpServerRequest request, String path, Path file) {
+        vertx.<CachedFile>executeBlocking(blocking -> {
+            try {
+                blocking.complete(CachedFile.load(file, contentType(file), policy));
+            } catch (IOException e) {
+                blocking.fail(e);
+            }
+        }, false, ar -> {
+            if (ar.failed()) {
+                LOG.debug("Failed to load {}", file, ar.cause());
+                notFound(request.response());
+                return;
+            }
+
+            cache.put(path, ar.result());
+            send(request, ar.result());
+        });
+    }
+
+    // Compares the cached file with the one on disk, in the background
+    private void revalidate(String path, CachedFile cached) {
+        long now = System.nanoTime();
+        if (now - cached.checkedAt < revalidateNanos) {
+            return;
+        }
+
+        cached.checkedAt = now;
+        vertx.fileSystem().props(cached.file.toString(), ar -> {
+            if (ar.failed()) {
+                cache.remove(path, cached);
+                return;
+            }
+
+            FileProps props = ar.result();
+            Future<Long> gzipModified = lastModified(CachedFile.gzipSibling(cached.file));
+            Future<Long> brModified = lastModified(CachedFile.brSibling(cached.file));
+            CompositeFuture.all(gzipModified, brModified).setHandler(siblings -> {
+                if (!cached.matches(props.size(), props.lastModifiedTime(), gzipModified.result(), brModified.result())) {
+                    cache.remove(path, cached);
+                }
+            });
+        });
+    }
+
+    private Future<Long> lastModified(Path file) {
+        Future<Long> future = Future.future();
+        vertx.fileSystem().props(file.toString(), ar -> {
+            boolean exists = ar.succeeded() && ar.result().isRegularFile();
+            future.complete(exists ? ar.result().lastModifiedTime() : CachedFile.ABSENT);
+        });
+        return future;
+    }
+
+
+    private void send(HttpServerRequest request, CachedFile file) {
+        HttpServerResponse response = request.response();
+        MultiMap headers = response.headers();
+
+        CachedFile.Variant variant = selectVariant(request, file);
+
+        headers.set(HttpHeaders.CONTENT_TYPE, file.contentType);
+        headers.set(LAST_MODIFIED, file.lastModified);
+        headers.set(ETAG, variant.etag);
+        headers.set(ACCEPT_RANGES, BYTES);
+        if (file.gzip != null || file.br != null) {
+            headers.set(VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (notModified(request, file.etagValue, file.lastModified.toString(), file.lastModifiedMillis)) {
+            response.setStatusCode(304).end();
+            return;
+        }
+
+        ByteRange range = range(request, file.size, file.identity.etag, file.lastModified);
+        if (range != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+            if (range == ByteRange.UNSATISFIABLE) {
+                unsatisfiable(response, file.size);
+                return;
+            }
+
+            headers.set(ETAG, file.identity.etag);
+            headers.set(CONTENT_RANGE, range.contentRange(file.size));
+            headers.set(HttpHeaders.CONTENT_LENGTH, String.valueOf(range.length()));
+            response.setStatusCode(206);
+
+            // A slice shares the cached content (index copy only)
+            Buffer slice = Buffer.buffer(file.identity.body.getByteBuf().slice((int) range.start, (int) range.length()));
+            end(request, response, slice);
+            return;
+        }
+
+        headers.set(HttpHeaders.CONTENT_LENGTH, variant.length);
+        if (variant != file.identity) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding);
+        } else if (!file.compressible) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+        } // Else left to the server compressor (HTTP/2, or no variant accepted)
+
+        end(request, response, variant.body);
+    }
+
+    private CachedFile.Variant selectVariant(HttpServerRequest request, CachedFile file) {
+        String acceptEncoding = request.headers().get(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return file.identity;
+        }
+
+        if (file.br != null && AcceptEncoding.accepts(acceptEncoding, "br")) {
+            return file.br;
+        }
+        boolean dynamicallyCompressed = policy.enabled() && request.version() == HttpVersion.HTTP_2;
+        if (file.gzip != null && !dynamicallyCompressed && AcceptEncoding.accepts(acceptEncoding, "gzip")) {
+            return file.gzip;
+        }
+        return file.identity;
+    }
+
+    private static void end(HttpServerRequest request, HttpServerResponse response, Buffer body) {
+        if (request.method() == HttpMethod.HEAD) {
+            response.end(); // Content-Length of the body it would get
+        } else {
+            response.end(body);
+        }
+    }
+
+
+    private void sendFile(HttpServerRequest request, Path file, FileProps props) {
+        HttpServerResponse response = request.response();
+        MultiMap headers = response.headers();
+
+        long size = props.size();
+        String etagValue = etagValue(size, props.lastModifiedTime());
+        String etag = '"' + etagValue + '"';
+        String lastModified = httpDate(props.lastModifiedTime());
+        String contentType = contentType(file);
+
+        headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+        headers.set(LAST_MODIFIED, lastModified);
+        headers.set(ETAG, etag);
+        headers.set(ACCEPT_RANGES, BYTES);
+
+        if (notModified(request, etagValue, lastModified, props.lastModifiedTime())) {
+            response.setStatusCode(304).end();
+            return;
+        }
+
+        long offset = 0;
+        long length = size;
+
+        ByteRange range = range(request, size, etag, lastModified);
+        if (range != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+            if (range == ByteRange.UNSATISFIABLE) {
+                unsatisfiable(response, size);
+                return;
+            }
+
+            headers.set(CONTENT_RANGE, range.contentRange(size));
+            response.setStatusCode(206);
+            offset = range.start;
+            length = range.length();
+        } else {
+            policy.apply(response, contentType, size);
+        }
+
+        if (request.method() == HttpMethod.HEAD) {
+            headers.set(HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+            response.end();
+            return;
+        }
+
+        response.sendFile(file.toString(), offset, length, ar -> sendFileFailed(response, file, ar));
+    }
+
+    private static void sendFileFailed(HttpServerResponse response, Path file, AsyncResult<Void> ar) {
+        if (ar.succeeded()) {
+            return;
+        }
+
+        LOG.debug("Failed to send {}", file, ar.cause());
+        if (response.headWritten()) {
+            response.close(); // Truncated: the client must not take it for the whole file
+        } else {
+            notFound(response); // Deleted in between
+        }
+    }
+
+
+    // If-None-Match takes precedence over If-Modified-Since; the ETag of any variant matches
+    private static boolean notModified(HttpServerRequest request, String etagValue, String lastModified, long lastModifiedMillis) {
+        String ifNoneMatch = request.headers().get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return anyEtagMatches(ifNoneMatch, etagValue);
+        }
+
+        String ifModifiedSince = request.headers().get(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        if (ifModifiedSince.equals(lastModified)) {
+            return true; // The usual case: the value we sent, sent back
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModifiedMillis / 1000 <= since / 1000; // HTTP dates have a 1s resolution
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // Weak comparison (RFC 7232) of each tag of the list: "W/" and the quotes are ignored
+    private static boolean anyEtagMatches(String ifNoneMatch, String etagValue) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+
+            if (tag.equals(etagValue)
+                || tag.equals(etagValue + "-gzip")
+                || tag.equals(etagValue + "-br")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The range only applies when the If-Range validator (if any) still matches the file
+    private static ByteRange range(HttpServerRequest request, long size, CharSequence etag, CharSequence lastModified) {
+        String header = request.headers().get(RANGE);
+        if (header == null) {
+            return null;
+        }
+
+        String ifRange = request.headers().get(IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag.toString()) && !ifRange.equals(lastModified.toString())) {
+            return null;
+        }
+        return ByteRange.parse(header, size);
+    }
+
+    private static void unsatisfiable(HttpServerResponse response, long size) {
+        response.headers().remove(HttpHeaders.CONTENT_TYPE);
+        response.putHeader(CONTENT_RANGE, "bytes */" + size)
+                .setStatusCode(416)
+                .end();
+    }
+
+    private static void badRequest(HttpServerResponse response) {
+        response.headers().clear();
+        response.setStatusCode(400).end();
+    }
+
+    private static void notFound(HttpServerResponse response) {
+        response.headers().clear();
+        response.setStatusCode(404).end();
+    }
+
+
+    private String relativePath(Path file) {
+        StringBuilder path = new StringBuilder();
+        for (Path name : root.relativize(file)) {
+            path.append('/').append(name);
+        }
+        return path.toString();
+    }
+
+    // Blocking
+    private static boolean isVariant(Path file) {
+        Path source = variantSource(file);
+        return source != null && Files.isRegularFile(source);
+    }
+
+    // The file x.gz or x.br would be a variant of (x), if it exists
+    private static Path variantSource(Path file) {
+        String name = file.getFileName().toString();
+        if (name.length() > 3 && (name.endsWith(".gz") || name.endsWith(".br"))) {
+            return file.resolveSibling(name.substring(0, name.length() - 3));
+        }
+        return null;
+    }
+
+    static String contentType(Path file) {
+        String contentType = MimeMapping.getMimeTypeForFilename(file.getFileName().toString());
+        if (contentType == null) {
+            return "application/octet-stream";
+        }
+        return contentType.startsWith("text/") ? contentType + ";charset=UTF-8" : contentType;
+    }
+
+    // Size and modification time, like nginx and Apache (no content hash to compute)
+    static String etagValue(long size, long lastModifiedMillis) {
+        return Long.toHexString(lastModifiedMillis) + "-" + Long.toHexString(size);
+    }
+
+    static String httpDate(long millis) {
+        return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+    }
+}
@@ -0,0 +1,188 @@
+package com.manikanta.tls;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+import com.manikanta.ServerConfig;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.impl.HttpServerImpl;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.core.net.impl.SSLHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TLS of the HTTP server, from the <code>tls</code> config (absent: clear text), see {@link TlsOptions}.
+ * <p>
+ * With TLS on, HTTP/2 (h2) and HTTP/1.1 are negotiated with ALPN. The engine is OpenSSL, i.e. the BoringSSL
+ * statically linked in netty-tcnative (faster handshakes and encryption than the JDK engine, and ALPN on any
+ * JDK); the JDK engine is the fallback when OpenSSL can't be used.
+ * <p>
+ * Handshakes are the CPU cost of short-lived connections, so:
+ * <ul>
+ * <li>sessions are cached and resumable with tickets ({@link SessionTicketKeys}): a resumed handshake skips
+ * the key exchange and the certificate</li>
+ * <li>only forward secret AEAD suites, ECDSA first (cheaper signatures than RSA with an EC certificate)</li>
+ * <li>no OCSP on the handshake path: no stapling (Vert.x never enables it, so nothing is fetched from the
+ * CA at startup or refreshed) and no revocation checks, client certificates aren't requested</li>
+ * </ul>
+ */
+public final class ServerTls {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerTls.class);
+
+
+    private ServerTls() {
+    }
+
+
+    public static HttpServerOptions apply(HttpServerOptions options, JsonObject config) {
+        JsonObject json = config.getJsonObject(ServerConfig.TLS);
+        if (json == null) {
+            return options.setSsl(false)
+                          .setUseAlpn(false); // h2c (HTTP/2 over plain socket): upgrade or prior knowledge
+        }
+        TlsOptions tls = new TlsOptions(json);
+
+        options.setSsl(true)
+               .setUseAlpn(true) // h2 (HTTP/2 over TLS), negotiated with the client
+               .setPemKeyCertOptions(new PemKeyCertOptions()
+                                         .setCertPath(tls.getCertPath())
+                                         .setKeyPath(tls.getKeyPath()));
+
+        boolean openSsl = tls.getEngine() != TlsOptions.Engine.JDK && openSslAvailable();
+        if (tls.getEngine() == TlsOptions.Engine.OPENSSL && !openSsl) {
+            LOG.warn("OpenSSL engine unavailable, using the JDK one");
+        }
+        if (openSsl) {
+            options.setOpenSslEngineOptions(new OpenSSLEngineOptions().setSessionCacheEnabled(true));
+        } else {
+            options.setJdkSslEngineOptions(new JdkSSLEngineOptions());
+        }
+
+        // Vert.x keeps the protocols the engine supports
+        options.setEnabledSecureTransportProtocols(new LinkedHashSet<>(tls.getProtocols()));
+        for (String cipherSuite : supportedCipherSuites(tls.getCipherSuites(), openSsl)) {
+            options.addEnabledCipherSuite(cipherSuite);
+        }
+        return options;
+    }
+
+    /**
+     * Sizes the session cache of the server and gives it the session ticket keys (see {@link SessionTicketKeys},
+     * loaded once per Vertx); to be called before <code>listen</code>. Returns the keys to be released on
+     * undeploy, <code>null</code> when there are none.
+     * <p>
+     * With several verticle instances, the connections are served by the first server bound to the port
+     * (Vert.x shares it), whichever it is: every instance sizes its own cache (no I/O), the keys are read once.
+     */
+    public static Future<SessionTicketKeys> configureSessions(Vertx vertx, HttpServer server, HttpServerOptions options,
+                                                              JsonObject config) {
+        JsonObject json = config.getJsonObject(ServerConfig.TLS);
+        if (json == null) {
+            return Future.succeededFuture();
+        }
+        TlsOptions tls = new TlsOptions(json);
+
+        // Created now rather than when binding, so it can be tuned (Vert.x doesn't expose these); with the
+        // protocols listen would give it, for ALPN
+        SSLHelper sslHelper = ((HttpServerImpl) server).getSslHelper();
+        sslHelper.setApplicationProtocols(options.getAlpnVersions());
+        SSLSessionContext sessions = sslHelper.getContext((VertxInternal) vertx).sessionContext();
+        sessions.setSessionCacheSize(tls.getSessionCacheSize());
+        sessions.setSessionTimeout(tls.getSessionTimeoutSec());
+
+        if (tls.getSessionTicketKeyFiles().isEmpty()) {
+            return Future.succeededFuture();
+        }
+        if (!(sessions instanceof OpenSslSessionContext)) {
+            // The JDK engine encrypts tickets with its own random keys, rotated every session timeout
+            LOG.warn("Session ticket key files ignored: supported by the OpenSSL engine only");
+            return Future.succeededFuture();
+        }
+
+        Future<SessionTicketKeys> loaded = Future.future();
+        vertx.<SessionTicketKeys>executeBlocking(blocking -> {
+            try {
+                SessionTicketKeys keys = SessionTicketKeys.get(vertx, tls.getSessionTicketKeyFiles(),
+                                                               tls.getSessionTicketReloadSec());
+                keys.register((OpenSslSessionContext) sessions);
+                blocking.complete(keys);
+            } catch (IOException e) {
+                blocking.fail(e);
+            }
+        }, false, loaded);
+        return loaded;
+    }
+
+
+    /**
+     * Vert.x gives its servers' keys to OpenSSL through a KeyManagerFactory, which Netty enables only after a
+     * self-signed test certificate could be generated at startup (not on recent JDKs without Bouncy Castle).
+     */
+    static boolean openSslAvailable() {
+        return OpenSSLEngineOptions.isAvailable() && OpenSsl.supportsKeyManagerFactory();
+    }
+
+    /**
+     * The given suites (IANA names) the engine supports, in the same order.
+     */
+    public static List<String> supportedCipherSuites(List<String> cipherSuites, boolean openSsl) {
+        Set<String> supported;
+        if (openSsl) {
+            supported = OpenSsl.availableJavaCipherSuites();
+        } else {
+            try {
+                supported = new HashSet<>(Arrays.asList(SSLContext.getDefault()
+                                                                  .getSupportedSSLParameters()
+                                                                  .getCipherSuites()));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        List<String> enabled = new ArrayList<>(cipherSuites.size());
+        for (String cipherSuite : cipherSuites) {
+            if (supported.contains(cipherSuite)) {
+                enabled.add(cipherSuite);
+            }
+        }
+        if (enabled.isEmpty()) {
+            throw new IllegalArgumentException("tls: none of the cipher suites is supported by the engine");
+        }
+        return enabled;
+    }
+
+    static String engine(HttpServerOptions options) {
+        return options.getSslEngineOptions() instanceof OpenSSLEngineOptions ? "OpenSSL (BoringSSL)" : "JDK";
+    }
+
+    /**
+     * Logs the protocols the server speaks, once at startup.
+     */
+    public static void report(HttpServerOptions options) {
+        if (options.isSsl()) {
+            LOG.info("TLS on, {} engine, {}: h2 and HTTP/1.1 (ALPN)",
+                     engine(options), options.getEnabledSecureTransportProtocols());
+        } else {
+            LOG.info("TLS off: h2c (upgrade or prior knowledge) and HTTP/1.1");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.manikanta.tls;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Session ticket keys of the OpenSSL engine, read from local files so all the servers behind the same name
+ * share them: a client resumes its session on any of them, without a full handshake.
+ * <p>
+ * Each file holds one key, 48 random bytes (name, HMAC secret and AES key, 16 bytes each). The first file
+ * encrypts the new tickets; all of them decrypt the tickets clients present, so the previous key keeps
+ * resuming the sessions it issued after a rotation. Keys are rotated by replacing the files (e.g.
+ * <code>mv ticket.current ticket.previous; openssl rand 48 &gt; ticket.current</code>), which are reloaded
+ * when their modification time or size changes, by a background thread; reads are blocking.
+ * <p>
+ * One instance per Vertx and set of files: the keys are read (and watched) once, and given to the session
+ * context of every server {@link #register}ed, whichever ends up bound to the port. Each verticle instance
+ * {@link #release()}s it on undeploy, the last one stops the reloads.
+ */
+public final class SessionTicketKeys implements Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionTicketKeys.class);
+
+    private static final String SHARED_MAP = SessionTicketKeys.class.getName();
+
+    private final List<Path> files = new ArrayList<>();
+    private final long reloadMillis;
+    private final LocalMap<String, SessionTicketKeys> shared;
+    private final String key;
+    private int users; // Guarded by the class lock
+
+    // Weak: the contexts of closed servers go away with them
+    private final Set<OpenSslSessionContext> sessions = Collections.newSetFromMap(new WeakHashMap<>());
+    private OpenSslSessionTicketKey[] keys;
+    private long[] loadedVersions; // Modification time and size of each file, when last loaded
+
+    private Thread reloader;
+    private volatile boolean running = true;
+
+
+    private SessionTicketKeys(List<String> files, int reloadSec, LocalMap<String, SessionTicketKeys> shared, String key) {
+        for (String file : files) {
+            this.files.add(Paths.get(file));
+        }
+        this.reloadMillis = TimeUnit.SECONDS.toMillis(reloadSec);
+        this.shared = shared;
+        this.key = key;
+    }
+
+
+    /**
+     * Returns the keys of the given files, loaded on first call, then reloaded every <code>reloadSec</code>;
+     * blocking. To be {@link #release()}d.
+     */
+    static SessionTicketKeys get(Vertx vertx, List<String> files, int reloadSec) throws IOException {
+        synchronized (SessionTicketKeys.class) {
+            LocalMap<String, SessionTicketKeys> shared = vertx.sharedData().getLocalMap(SHARED_MAP);
+            String key = String.join(File.pathSeparator, files);
+            SessionTicketKeys ticketKeys = shared.get(key);
+            if (ticketKeys == null) {
+                ticketKeys = new SessionTicketKeys(files, reloadSec, shared, key);
+                ticketKeys.reloadIfChanged();
+                ticketKeys.start();
+                shared.put(key, ticketKeys);
+            }
+            ticketKeys.users++;
+            return ticketKeys;
+        }
+    }
+
+    /**
+     * Gives the keys to the session context of a server, now and on every reload.
+     */
+    synchronized void register(OpenSslSessionContext context) {
+        sessions.add(context);
+        context.setTicketKeys(keys);
+    }
+
+    /**
+     * Called by each user on undeploy; the last one stops the reloads.
+     */
+    public void release() {
+        synchronized (SessionTicketKeys.class) {
+            if (--users > 0) {
+                return;
+            }
+            shared.remove(key); // A redeployment starts a new one
+        }
+        running = false;
+        reloader.interrupt();
+    }
+
+    private void start() {
+        reloader = new Thread(() -> {
+            while (running) {
+                try {
+                    Thread.sleep(reloadMillis);
+                    reloadIfChanged();
+                } catch (InterruptedException e) {
+                    return; // Released
+                } catch (IOException e) {
+                    // The keys in use are kept
+                    LOG.error("Failed to reload the session ticket keys", e);
+                }
+            }
+        }, "session-ticket-keys");
+        reloader.setDaemon(true);
+        reloader.start();
+    }
+
+
+    /**
+     * Loads the keys when the files changed since the last load; returns whether they did.
+     */
+    synchronized boolean reloadIfChanged() throws IOException {
+        long[] versions = new long[files.size() * 2];
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            versions[2 * i] = Files.getLastModifiedTime(file).toMillis();
+            versions[2 * i + 1] = Files.size(file);
+        }
+        if (Arrays.equals(versions, loadedVersions)) {
+            return false;
+        }
+
+        OpenSslSessionTicketKey[] keys = new OpenSslSessionTicketKey[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            keys[i] = read(files.get(i));
+        }
+        for (OpenSslSessionContext context : sessions) {
+            context.setTicketKeys(keys);
+        }
+        this.keys = keys;
+        loadedVersions = versions;
+
+        LOG.info("Loaded {} session ticket key(s), new tickets encrypted with {}", keys.length, files.get(0));
+        return true;
+    }
+
+
+    static OpenSslSessionTicketKey read(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != OpenSslSessionTicketKey.TICKET_KEY_SIZE) {
+            throw new IOException(file + ": a session ticket key is " + OpenSslSessionTicketKey.TICKET_KEY_SIZE
+                                      + " bytes, not " + bytes.length);
+        }
+
+        int name = OpenSslSessionTicketKey.NAME_SIZE;
+        int hmac = name + OpenSslSessionTicketKey.HMAC_KEY_SIZE;
+        return new OpenSslSessionTicketKey(Arrays.copyOfRange(bytes, 0, name),
+                                           Arrays.copyOfRange(bytes, name, hmac),
+                                           Arrays.copyOfRange(bytes, hmac, bytes.length));
+    }
+}
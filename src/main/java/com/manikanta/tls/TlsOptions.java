@@ -0,0 +1,143 @@
+package com.manikanta.tls;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of the {@link ServerTls}; only the certificate and key are required:
+ * <pre>
+ * "tls": {
+ *   "certPath": "server-cert.pem", "keyPath": "server-key.pem",
+ *   "engine": "openssl",                          // Or "jdk"; OpenSSL when available by default
+ *   "protocols": ["TLSv1.2", "TLSv1.3"],
+ *   "cipherSuites": ["TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256", ...],
+ *   "sessionCacheSize": 20480, "sessionTimeoutSec": 3600,
+ *   "sessionTicketKeyFiles": ["/etc/tls/ticket.current", "/etc/tls/ticket.previous"],
+ *   "sessionTicketReloadSec": 60
+ * }
+ * </pre>
+ * Cipher suites are in their IANA (Java) names, in order of preference; the ones the engine doesn't
+ * support are skipped. Session ticket key files are 48 random bytes each (<code>openssl rand 48</code>), see
+ * {@link SessionTicketKeys}.
+ */
+public class TlsOptions {
+
+    public enum Engine {
+        OPENSSL,
+        JDK
+    }
+
+    // TLS 1.0 and 1.1 (Vert.x defaults) are deprecated; the engine keeps the ones it supports
+    public static final List<String> DEFAULT_PROTOCOLS = Collections.unmodifiableList(Arrays.asList("TLSv1.2", "TLSv1.3"));
+
+    // Forward secret AEAD suites only. ECDSA first: with an EC certificate, signing is much cheaper than
+    // with RSA, which is most of the server side handshake CPU
+    public static final List<String> DEFAULT_CIPHER_SUITES = Collections.unmodifiableList(Arrays.asList(
+        // TLS 1.3
+        "TLS_AES_128_GCM_SHA256",
+        "TLS_AES_256_GCM_SHA384",
+        "TLS_CHACHA20_POLY1305_SHA256",
+        // TLS 1.2
+        "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256",
+        "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+        "TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384",
+        "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384",
+        "TLS_ECDHE_ECDSA_WITH_CHACHA20_POLY1305_SHA256",
+        "TLS_ECDHE_RSA_WITH_CHACHA20_POLY1305_SHA256"));
+
+    // Sessions resumed without the key exchange nor the certificate: for clients reconnecting within the
+    // timeout (mobile ones going in and out of coverage)
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 20_480;
+    public static final int DEFAULT_SESSION_TIMEOUT_SEC = 3_600;
+    public static final int DEFAULT_SESSION_TICKET_RELOAD_SEC = 60;
+
+    private final String certPath;
+    private final String keyPath;
+    private final Engine engine; // Null: OpenSSL when available
+    private final List<String> protocols;
+    private final List<String> cipherSuites;
+    private final int sessionCacheSize;
+    private final int sessionTimeoutSec;
+    private final List<String> sessionTicketKeyFiles;
+    private final int sessionTicketReloadSec;
+
+
+    public TlsOptions(JsonObject json) {
+        certPath = json.getString("certPath");
+        keyPath = json.getString("keyPath");
+        if (certPath == null || keyPath == null) {
+            throw new IllegalArgumentException("tls: certPath and keyPath are required");
+        }
+
+        String engineName = json.getString("engine");
+        engine = engineName != null ? Engine.valueOf(engineName.toUpperCase()) : null;
+
+        protocols = strings(json.getJsonArray("protocols"), DEFAULT_PROTOCOLS);
+        cipherSuites = strings(json.getJsonArray("cipherSuites"), DEFAULT_CIPHER_SUITES);
+
+        sessionCacheSize = json.getInteger("sessionCacheSize", DEFAULT_SESSION_CACHE_SIZE);
+        sessionTimeoutSec = json.getInteger("sessionTimeoutSec", DEFAULT_SESSION_TIMEOUT_SEC);
+        sessionTicketKeyFiles = strings(json.getJsonArray("sessionTicketKeyFiles"), Collections.emptyList());
+        sessionTicketReloadSec = json.getInteger("sessionTicketReloadSec", DEFAULT_SESSION_TICKET_RELOAD_SEC);
+
+        if (sessionCacheSize < 0 || sessionTimeoutSec < 0) {
+            throw new IllegalArgumentException("tls: sessionCacheSize and sessionTimeoutSec must be >= 0");
+        }
+        if (sessionTicketReloadSec < 1) {
+            throw new IllegalArgumentException("tls: sessionTicketReloadSec must be > 0");
+        }
+    }
+
+    private static List<String> strings(JsonArray array, List<String> defaults) {
+        if (array == null) {
+            return defaults;
+        }
+        List<String> strings = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            strings.add(array.getString(i));
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+
+    public String getCertPath() {
+        return certPath;
+    }
+
+    public String getKeyPath() {
+        return keyPath;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public List<String> getProtocols() {
+        return protocols;
+    }
+
+    public List<String> getCipherSuites() {
+        return cipherSuites;
+    }
+
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public int getSessionTimeoutSec() {
+        return sessionTimeoutSec;
+    }
+
+    public List<String> getSessionTicketKeyFiles() {
+        return sessionTicketKeyFiles;
+    }
+
+    public int getSessionTicketReloadSec() {
+        return sessionTicketReloadSec;
+    }
+}
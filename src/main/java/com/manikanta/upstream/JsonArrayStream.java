@@ -0,0 +1,132 @@
+package com.manikanta.upstream;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * The elements of a JSON array of objects (<code>[{...}, {...}, ...]</code>), parsed as the bytes arrive.
+ * <p>
+ * Only one element is held in memory at a time (plus the bytes of the current chunk), whatever the size of the
+ * array. Back-pressure goes all the way to the source: pausing this stream (or a <code>fetch</code> demand
+ * running out) pauses the source, e.g. the upstream response, which in turn stops reading from the socket.
+ * <p>
+ * Not thread safe: used from the context of its source.
+ */
+public class JsonArrayStream implements ReadStream<JsonObject> {
+
+    private final JsonParser parser;
+
+    private Handler<JsonObject> handler;
+    private Handler<Throwable> exceptionHandler;
+    private long demand = Long.MAX_VALUE;
+    private int depth;
+
+
+    public JsonArrayStream(ReadStream<Buffer> source) {
+        this.parser = JsonParser.newParser(source).objectValueMode();
+    }
+
+
+    @Override
+    public JsonArrayStream handler(Handler<JsonObject> handler) {
+        this.handler = handler;
+
+        if (handler == null) {
+            parser.handler(null);
+            return this;
+        }
+
+        parser.handler(this::handleEvent);
+        if (demand > 0) {
+            parser.resume(); // Also resumes the source, if it was paused
+        }
+        return this;
+    }
+
+    private void handleEvent(JsonEvent event) {
+        switch (event.type()) {
+            case START_ARRAY:
+                if (depth++ == 0) {
+                    return;
+                }
+                break;
+            case END_ARRAY:
+                depth--;
+                return;
+            case VALUE:
+                if (depth == 1 && event.value() instanceof JsonObject) {
+                    emit(event.objectValue());
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+
+        fail(new DecodeException("Expected an array of objects, got " + event.type() + " " + event.value()));
+    }
+
+    private void emit(JsonObject element) {
+        if (demand != Long.MAX_VALUE && --demand == 0) {
+            parser.pause();
+        }
+
+        Handler<JsonObject> elementHandler = handler;
+        if (elementHandler != null) {
+            elementHandler.handle(element);
+        }
+    }
+
+    private void fail(Throwable failure) {
+        parser.handler(null); // Stop parsing, the rest is garbage anyway
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(failure);
+        }
+    }
+
+
+    @Override
+    public JsonArrayStream pause() {
+        demand = 0;
+        parser.pause();
+        return this;
+    }
+
+    @Override
+    public JsonArrayStream resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public JsonArrayStream fetch(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be > 0");
+        }
+
+        demand += amount;
+        if (demand < 0) {
+            demand = Long.MAX_VALUE;
+        }
+
+        parser.resume(); // Token level demand: the element level one is tracked here
+        return this;
+    }
+
+    @Override
+    public JsonArrayStream endHandler(Handler<Void> endHandler) {
+        parser.endHandler(endHandler);
+        return this;
+    }
+
+    @Override
+    public JsonArrayStream exceptionHandler(Handler<Throwable> exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+        parser.exceptionHandler(exceptionHandler);
+        return this;
+    }
+}
@@ -0,0 +1,212 @@
+package com.manikanta.upstream;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Long-lived, pooled client of one upstream (host:port), see {@link UpstreamOptions} for the pool sizing and
+ * {@link UpstreamStats} for the metrics.
+ * <p>
+ * Creating a client per call (as in <code>HttpClientExample</code>) pays a TCP (and TLS) handshake on every
+ * request and never gets to reuse, pipeline or multiplex connections; here a client lives as long as its
+ * verticle.
+ * <p>
+ * One per verticle instance (see {@link UpstreamClients}): Vert.x binds each connection to the event loop
+ * that opened it, so a client shared by several verticles would call their handlers on each others' loops.
+ */
+public class UpstreamClient {
+
+    private final String name;
+    private final String host;
+    private final int port;
+    private final HttpClient client;
+    private final long requestTimeoutMs;
+    private final UpstreamStats stats;
+
+
+    UpstreamClient(Vertx vertx, String name, UpstreamOptions options) {
+        this.name = name;
+        this.host = options.getHost();
+        this.port = options.getPort();
+        this.requestTimeoutMs = options.getRequestTimeoutMs();
+        this.stats = UpstreamStats.of(name);
+
+        this.client = vertx.createHttpClient(options.toHttpClientOptions());
+        this.client.connectionHandler(connection -> {
+            stats.connectionsOpened.increment();
+            stats.openConnections.incrementAndGet();
+
+            connection.closeHandler(v -> {
+                stats.connectionsClosed.increment();
+                stats.openConnections.decrementAndGet();
+            });
+        });
+    }
+
+
+    /**
+     * Sends the request and reads the whole response body.
+     */
+    public Future<UpstreamResponse> send(HttpMethod method, String uri, Buffer body) {
+        Future<UpstreamResponse> result = Future.future();
+
+        Handler<HttpClientRequest> prepare = body == null ? null : req -> {
+            req.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()));
+        };
+
+        HttpClientRequest request = request(method, uri, prepare, ar -> {
+            if (ar.failed()) {
+                result.fail(ar.cause());
+                return;
+            }
+
+            HttpClientResponse response = ar.result();
+            response.exceptionHandler(result::tryFail)
+                    .bodyHandler(responseBody -> result.tryComplete(new UpstreamResponse(response.statusCode(),
+                                                                                         response.headers(),
+                                                                                         responseBody)));
+        });
+
+        if (body != null) request.end(body);
+        else request.end();
+
+        return result;
+    }
+
+    public Future<UpstreamResponse> get(String uri) {
+        return send(HttpMethod.GET, uri, null);
+    }
+
+    /**
+     * Sends a body-less request and hands out the response head; the response is paused, so that no data is
+     * lost until the caller consumes it as a <code>ReadStream&lt;Buffer&gt;</code> (with <code>handler</code> +
+     * <code>resume</code>, a <code>pipeTo</code>, a {@link JsonArrayStream}...) instead of buffering the whole
+     * body with <code>bodyHandler</code>.
+     */
+    public Future<HttpClientResponse> stream(HttpMethod method, String uri) {
+        Future<HttpClientResponse> result = Future.future();
+
+        request(method, uri, null, ar -> {
+            if (ar.succeeded()) {
+                result.complete(ar.result().pause());
+            } else {
+                result.fail(ar.cause());
+            }
+        }).end();
+
+        return result;
+    }
+
+    /**
+     * GETs <code>uri</code> and streams the response (status, content type & body) to <code>serverResponse</code>
+     * as it arrives: only the chunks in flight are held in memory, and the upstream socket is not read while the
+     * client is slower than the upstream.
+     * <p>
+     * When the upstream fails half way, the client connection is closed rather than the response ended, so the
+     * client can't mistake a truncated body for a complete one.
+     */
+    public Future<Void> pipeTo(String uri, HttpServerResponse serverResponse) {
+        Future<Void> result = Future.future();
+
+        stream(HttpMethod.GET, uri).setHandler(ar -> {
+            if (ar.failed()) {
+                result.fail(ar.cause());
+                return;
+            }
+
+            HttpClientResponse response = ar.result();
+            serverResponse.setStatusCode(response.statusCode());
+
+            String contentType = response.getHeader(HttpHeaders.CONTENT_TYPE);
+            if (contentType != null) {
+                serverResponse.putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+            String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+            if (contentLength != null) {
+                serverResponse.putHeader(HttpHeaders.CONTENT_LENGTH, contentLength);
+            } else {
+                serverResponse.setChunked(true);
+            }
+
+            response.pipe()
+                    .endOnFailure(false)
+                    .to(serverResponse, piped -> {
+                        if (piped.failed()) {
+                            serverResponse.close();
+                        }
+                        result.handle(piped);
+                    });
+        });
+
+        return result;
+    }
+
+    /**
+     * Starts a request, to be ended (or streamed to) by the caller: <code>prepare</code> is called first to set
+     * the headers, the head is sent as soon as a connection is available. So requests with a body must set
+     * their Content-Length (or chunked) in <code>prepare</code>.
+     * <p>
+     * The response handler is called once, with the response head (whose body is to be read by the caller) or
+     * with the failure (timeout, connection error, pool wait queue full).
+     */
+    public HttpClientRequest request(HttpMethod method,
+                                     String uri,
+                                     Handler<HttpClientRequest> prepare,
+                                     Handler<AsyncResult<HttpClientResponse>> responseHandler) {
+        long startedAt = System.nanoTime();
+        boolean[] done = new boolean[1];
+        stats.activeRequests.incrementAndGet();
+
+        // Every response handler signature is deprecated in 3.7 (AsyncResult based in Vert.x 4)
+        @SuppressWarnings("deprecation")
+        HttpClientRequest request = client.request(method, port, host, uri, response -> {
+            if (done[0]) {
+                return;
+            }
+            done[0] = true;
+            stats.activeRequests.decrementAndGet();
+            stats.recordSince(stats.responseTime, startedAt);
+
+            responseHandler.handle(Future.succeededFuture(response));
+        });
+
+        request.setTimeout(requestTimeoutMs)
+               .exceptionHandler(failure -> {
+                   if (done[0]) {
+                       return;
+                   }
+                   done[0] = true;
+                   stats.activeRequests.decrementAndGet();
+                   stats.failures.increment();
+
+                   responseHandler.handle(Future.failedFuture(failure));
+               });
+
+        if (prepare != null) {
+            prepare.handle(request);
+        }
+
+        // Called once the request has a connection (or stream) and its head is written
+        request.sendHead(version -> stats.recordSince(stats.poolWait, startedAt));
+
+        return request;
+    }
+
+
+    public String name() {
+        return name;
+    }
+
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.manikanta.upstream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The {@link UpstreamClient}s of a verticle instance, created once (on start) and closed with it.
+ * <p>
+ * Upstreams are declared in config; pool sizes are per verticle instance:
+ * <pre>
+ * "upstreams": {
+ *   "quotes": { "host": "quotes.internal", "port": 8080, "protocol": "HTTP_2", "http2MultiplexingLimit": 200 },
+ *   "crm": { "host": "crm.internal", "port": 80, "maxPoolSize": 16, "pipeliningLimit": 8 }
+ * }
+ * </pre>
+ * Not thread safe: one per verticle instance.
+ */
+public class UpstreamClients {
+
+    private final Vertx vertx;
+    private final Map<String, UpstreamClient> clients = new HashMap<>();
+
+
+    public UpstreamClients(Vertx vertx, JsonObject upstreamsConfig) {
+        this.vertx = vertx;
+        upstreamsConfig.forEach(entry -> client(entry.getKey(), new UpstreamOptions((JsonObject) entry.getValue())));
+    }
+
+
+    public UpstreamClient client(String name) {
+        UpstreamClient client = clients.get(name);
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown upstream '" + name + "'");
+        }
+        return client;
+    }
+
+    // Options are only used when the client doesn't exist yet
+    public UpstreamClient client(String name, UpstreamOptions options) {
+        return clients.computeIfAbsent(name, upstream -> new UpstreamClient(vertx, upstream, options));
+    }
+
+    public void close() {
+        clients.values().forEach(UpstreamClient::close);
+        clients.clear();
+    }
+}
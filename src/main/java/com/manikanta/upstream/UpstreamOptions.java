@@ -0,0 +1,227 @@
+package com.manikanta.upstream;
+
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of an {@link UpstreamClient}: where the upstream is and how its connection pool is sized.
+ * <p>
+ * With HTTP/1.1, up to <code>maxPoolSize</code> connections, each with up to <code>pipeliningLimit</code>
+ * pipelined requests. With HTTP/2 (ALPN over TLS, prior knowledge over clear text), up to
+ * <code>http2MaxPoolSize</code> connections, each multiplexing up to <code>http2MultiplexingLimit</code>
+ * streams. Requests above that wait for a connection, <code>maxWaitQueueSize</code> of them at most; the
+ * others fail right away.
+ */
+public class UpstreamOptions {
+
+    public static final int DEFAULT_PORT = 80;
+    public static final boolean DEFAULT_SSL = false;
+    public static final HttpVersion DEFAULT_PROTOCOL = HttpVersion.HTTP_1_1;
+    public static final int DEFAULT_MAX_POOL_SIZE = 8;
+    public static final int DEFAULT_PIPELINING_LIMIT = 10;
+    public static final int DEFAULT_HTTP2_MAX_POOL_SIZE = 1;
+    public static final int DEFAULT_HTTP2_MULTIPLEXING_LIMIT = 100;
+    public static final int DEFAULT_MAX_WAIT_QUEUE_SIZE = 256;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 2_000;
+    public static final long DEFAULT_REQUEST_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5);
+    public static final int DEFAULT_KEEP_ALIVE_TIMEOUT_SEC = 60;
+
+    private String host;
+    private int port = DEFAULT_PORT;
+    private boolean ssl = DEFAULT_SSL;
+    private HttpVersion protocol = DEFAULT_PROTOCOL;
+    private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    private int pipeliningLimit = DEFAULT_PIPELINING_LIMIT;
+    private int http2MaxPoolSize = DEFAULT_HTTP2_MAX_POOL_SIZE;
+    private int http2MultiplexingLimit = DEFAULT_HTTP2_MULTIPLEXING_LIMIT;
+    private int maxWaitQueueSize = DEFAULT_MAX_WAIT_QUEUE_SIZE;
+    private int connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT_MS;
+    private int keepAliveTimeoutSec = DEFAULT_KEEP_ALIVE_TIMEOUT_SEC;
+
+
+    public UpstreamOptions() {
+    }
+
+    public UpstreamOptions(JsonObject json) {
+        host = json.getString("host");
+        port = json.getInteger("port", DEFAULT_PORT);
+        ssl = json.getBoolean("ssl", DEFAULT_SSL);
+        protocol = HttpVersion.valueOf(json.getString("protocol", DEFAULT_PROTOCOL.name()));
+        maxPoolSize = json.getInteger("maxPoolSize", DEFAULT_MAX_POOL_SIZE);
+        pipeliningLimit = json.getInteger("pipeliningLimit", DEFAULT_PIPELINING_LIMIT);
+        http2MaxPoolSize = json.getInteger("http2MaxPoolSize", DEFAULT_HTTP2_MAX_POOL_SIZE);
+        http2MultiplexingLimit = json.getInteger("http2MultiplexingLimit", DEFAULT_HTTP2_MULTIPLEXING_LIMIT);
+        maxWaitQueueSize = json.getInteger("maxWaitQueueSize", DEFAULT_MAX_WAIT_QUEUE_SIZE);
+        connectTimeoutMs = json.getInteger("connectTimeoutMs", DEFAULT_CONNECT_TIMEOUT_MS);
+        requestTimeoutMs = json.getLong("requestTimeoutMs", DEFAULT_REQUEST_TIMEOUT_MS);
+        keepAliveTimeoutSec = json.getInteger("keepAliveTimeoutSec", DEFAULT_KEEP_ALIVE_TIMEOUT_SEC);
+    }
+
+
+    HttpClientOptions toHttpClientOptions() {
+        if (host == null) {
+            throw new IllegalArgumentException("Upstream host is missing");
+        }
+
+        return new HttpClientOptions()
+            .setDefaultHost(host)
+            .setDefaultPort(port)
+            .setSsl(ssl)
+            .setUseAlpn(ssl && protocol == HttpVersion.HTTP_2)
+            .setProtocolVersion(protocol)
+            .setHttp2ClearTextUpgrade(false) // Prior knowledge: no HTTP/1.1 upgrade round trip per connection
+
+            .setKeepAlive(true)
+            .setKeepAliveTimeout(keepAliveTimeoutSec)
+            .setHttp2KeepAliveTimeout(keepAliveTimeoutSec)
+            .setMaxPoolSize(maxPoolSize)
+            .setPipelining(pipeliningLimit > 1)
+            .setPipeliningLimit(Math.max(1, pipeliningLimit))
+            .setHttp2MaxPoolSize(http2MaxPoolSize)
+            .setHttp2MultiplexingLimit(http2MultiplexingLimit)
+            .setMaxWaitQueueSize(maxWaitQueueSize)
+
+            .setConnectTimeout(connectTimeoutMs)
+            .setTcpNoDelay(true)
+            .setTcpKeepAlive(true);
+    }
+
+
+    public String getHost() {
+        return host;
+    }
+
+    public UpstreamOptions setHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public UpstreamOptions setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public boolean isSsl() {
+        return ssl;
+    }
+
+    public UpstreamOptions setSsl(boolean ssl) {
+        this.ssl = ssl;
+        return this;
+    }
+
+    public HttpVersion getProtocol() {
+        return protocol;
+    }
+
+    // HTTP_1_1 or HTTP_2
+    public UpstreamOptions setProtocol(HttpVersion protocol) {
+        if (protocol == HttpVersion.HTTP_1_0) {
+            throw new IllegalArgumentException("HTTP/1.0 upstreams are not supported");
+        }
+        this.protocol = protocol;
+        return this;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    // HTTP/1.1 connections
+    public UpstreamOptions setMaxPoolSize(int maxPoolSize) {
+        if (maxPoolSize < 1) {
+            throw new IllegalArgumentException("maxPoolSize must be > 0");
+        }
+        this.maxPoolSize = maxPoolSize;
+        return this;
+    }
+
+    public int getPipeliningLimit() {
+        return pipeliningLimit;
+    }
+
+    // Requests in flight per HTTP/1.1 connection; 1 disables pipelining
+    public UpstreamOptions setPipeliningLimit(int pipeliningLimit) {
+        if (pipeliningLimit < 1) {
+            throw new IllegalArgumentException("pipeliningLimit must be > 0");
+        }
+        this.pipeliningLimit = pipeliningLimit;
+        return this;
+    }
+
+    public int getHttp2MaxPoolSize() {
+        return http2MaxPoolSize;
+    }
+
+    // HTTP/2 connections
+    public UpstreamOptions setHttp2MaxPoolSize(int http2MaxPoolSize) {
+        if (http2MaxPoolSize < 1) {
+            throw new IllegalArgumentException("http2MaxPoolSize must be > 0");
+        }
+        this.http2MaxPoolSize = http2MaxPoolSize;
+        return this;
+    }
+
+    public int getHttp2MultiplexingLimit() {
+        return http2MultiplexingLimit;
+    }
+
+    // Streams per HTTP/2 connection (also bounded by the server's SETTINGS_MAX_CONCURRENT_STREAMS)
+    public UpstreamOptions setHttp2MultiplexingLimit(int http2MultiplexingLimit) {
+        if (http2MultiplexingLimit < 1) {
+            throw new IllegalArgumentException("http2MultiplexingLimit must be > 0");
+        }
+        this.http2MultiplexingLimit = http2MultiplexingLimit;
+        return this;
+    }
+
+    public int getMaxWaitQueueSize() {
+        return maxWaitQueueSize;
+    }
+
+    // Requests allowed to wait for a connection
+    public UpstreamOptions setMaxWaitQueueSize(int maxWaitQueueSize) {
+        if (maxWaitQueueSize < 0) {
+            throw new IllegalArgumentException("maxWaitQueueSize must be >= 0");
+        }
+        this.maxWaitQueueSize = maxWaitQueueSize;
+        return this;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public UpstreamOptions setConnectTimeoutMs(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        return this;
+    }
+
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    // No response data for that long fails the request (pool wait included)
+    public UpstreamOptions setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+        return this;
+    }
+
+    public int getKeepAliveTimeoutSec() {
+        return keepAliveTimeoutSec;
+    }
+
+    // Idle connections are closed after that long
+    public UpstreamOptions setKeepAliveTimeoutSec(int keepAliveTimeoutSec) {
+        this.keepAliveTimeoutSec = keepAliveTimeoutSec;
+        return this;
+    }
+}
@@ -0,0 +1,34 @@
+package com.manikanta.upstream;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Fully read upstream response.
+ */
+public class UpstreamResponse {
+
+    private final int statusCode;
+    private final MultiMap headers;
+    private final Buffer body;
+
+
+    UpstreamResponse(int statusCode, MultiMap headers, Buffer body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public MultiMap headers() {
+        return headers;
+    }
+
+    public Buffer body() {
+        return body;
+    }
+}
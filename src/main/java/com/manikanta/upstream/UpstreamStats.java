@@ -0,0 +1,85 @@
+package com.manikanta.upstream;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of an upstream, shared by the {@link UpstreamClient}s of all the verticle instances (tag
+ * <code>upstream</code>):
+ * <ul>
+ * <li><code>upstream_pool_wait</code>: time for a request to get a connection (or HTTP/2 stream)</li>
+ * <li><code>upstream_response_time</code>: request start to response head</li>
+ * <li><code>upstream_active_requests</code>: requests waiting for their response head</li>
+ * <li><code>upstream_connections_open</code>, <code>upstream_connections_opened</code> and
+ * <code>upstream_connections_closed</code>: connection churn (a steadily growing opened count means the
+ * pool is too small or the keep alive too short)</li>
+ * <li><code>upstream_request_failures</code></li>
+ * </ul>
+ */
+final class UpstreamStats {
+
+    private static final Map<String, UpstreamStats> STATS = new ConcurrentHashMap<>();
+
+    final Timer poolWait;
+    final Timer responseTime;
+    final Counter connectionsOpened;
+    final Counter connectionsClosed;
+    final Counter failures;
+
+    // Kept apart from the meters, which are no-ops when metrics are disabled
+    final AtomicInteger activeRequests = new AtomicInteger();
+    final AtomicInteger openConnections = new AtomicInteger();
+
+
+    private UpstreamStats(String upstream) {
+        MeterRegistry registry = ServerMetrics.registry();
+
+        this.poolWait = Timer.builder("upstream_pool_wait")
+                             .description("Time spent by the requests waiting for a connection")
+                             .tag("upstream", upstream)
+                             .publishPercentileHistogram()
+                             .register(registry);
+        this.responseTime = Timer.builder("upstream_response_time")
+                                 .description("Time from the request start to the response head")
+                                 .tag("upstream", upstream)
+                                 .publishPercentileHistogram()
+                                 .register(registry);
+        this.connectionsOpened = Counter.builder("upstream_connections_opened")
+                                        .description("Connections opened to the upstream")
+                                        .tag("upstream", upstream)
+                                        .register(registry);
+        this.connectionsClosed = Counter.builder("upstream_connections_closed")
+                                        .description("Connections to the upstream closed")
+                                        .tag("upstream", upstream)
+                                        .register(registry);
+        this.failures = Counter.builder("upstream_request_failures")
+                               .description("Requests failed before their response head")
+                               .tag("upstream", upstream)
+                               .register(registry);
+        Gauge.builder("upstream_active_requests", activeRequests, AtomicInteger::get)
+             .description("Requests waiting for their response head")
+             .tag("upstream", upstream)
+             .register(registry);
+        Gauge.builder("upstream_connections_open", openConnections, AtomicInteger::get)
+             .description("Open connections to the upstream")
+             .tag("upstream", upstream)
+             .register(registry);
+    }
+
+
+    static UpstreamStats of(String upstream) {
+        return STATS.computeIfAbsent(upstream, UpstreamStats::new);
+    }
+
+    void recordSince(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
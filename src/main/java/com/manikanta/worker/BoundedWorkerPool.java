@@ -0,0 +1,124 @@
+package com.manikanta.worker;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.manikanta.PreEncodedResponse;
+import com.manikanta.ServerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+/**
+ * Named worker pool with a bounded queue.
+ * <p>
+ * Backed by a Vert.x shared worker executor (<code>maxConcurrency</code> threads), whose own queue is unbounded:
+ * here the tasks are counted when submitted and the ones above <code>maxConcurrency + queueSize</code> are
+ * failed immediately with a {@link RejectedExecutionException}. Callers serving HTTP should shed them with a
+ * fast 503 ({@link #OVERLOADED}) rather than keep the request (and its memory) waiting.
+ * <p>
+ * Metrics (tag <code>pool</code>): <code>worker_pool_queue_wait</code> (submit to start),
+ * <code>worker_pool_execution</code> (start to completion), <code>worker_pool_rejected</code> and
+ * <code>worker_pool_in_flight</code>.
+ */
+public class BoundedWorkerPool {
+
+    public static final PreEncodedResponse OVERLOADED = PreEncodedResponse.of(503, "text/plain", "Service unavailable");
+
+    private final String name;
+    private final int capacity;
+    private final WorkerExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Timer queueWait;
+    private final Timer execution;
+    private final Counter rejected;
+
+
+    BoundedWorkerPool(Vertx vertx, String name, WorkerPoolOptions options) {
+        this.name = name;
+        this.capacity = options.getMaxConcurrency() + options.getQueueSize();
+        this.executor = vertx.createSharedWorkerExecutor(name,
+                                                         options.getMaxConcurrency(),
+                                                         options.getMaxExecuteTimeMs(),
+                                                         TimeUnit.MILLISECONDS);
+
+        MeterRegistry registry = ServerMetrics.registry();
+        this.queueWait = Timer.builder("worker_pool_queue_wait")
+                              .description("Time spent by the tasks waiting for a worker thread")
+                              .tag("pool", name)
+                              .publishPercentileHistogram()
+                              .register(registry);
+        this.execution = Timer.builder("worker_pool_execution")
+                              .description("Execution time of the tasks")
+                              .tag("pool", name)
+                              .publishPercentileHistogram()
+                              .register(registry);
+        this.rejected = Counter.builder("worker_pool_rejected")
+                               .description("Tasks rejected as the pool was full")
+                               .tag("pool", name)
+                               .register(registry);
+        Gauge.builder("worker_pool_in_flight", inFlight, AtomicInteger::get)
+             .description("Tasks queued or running")
+             .tag("pool", name)
+             .register(registry);
+    }
+
+
+    /**
+     * Runs the blocking code on this pool, unordered (tasks of the same context may run concurrently).
+     * Returns a failed future with {@link RejectedExecutionException} when the pool is full.
+     */
+    public <T> Future<T> executeBlocking(Handler<Future<T>> blockingCode) {
+        Future<T> result = Future.future();
+
+        if (inFlight.incrementAndGet() > capacity) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            result.fail(new RejectedExecutionException("Worker pool '" + name + "' is full"));
+            return result;
+        }
+
+        long submittedAt = System.nanoTime();
+        long[] startedAt = new long[1];
+
+        executor.<T>executeBlocking(future -> {
+            startedAt[0] = System.nanoTime();
+            queueWait.record(startedAt[0] - submittedAt, TimeUnit.NANOSECONDS);
+
+            blockingCode.handle(future);
+        }, false, ar -> {
+            inFlight.decrementAndGet();
+            if (startedAt[0] != 0) {
+                execution.record(System.nanoTime() - startedAt[0], TimeUnit.NANOSECONDS);
+            }
+
+            result.handle(ar);
+        });
+
+        return result;
+    }
+
+    public static boolean isRejected(Throwable failure) {
+        return failure instanceof RejectedExecutionException;
+    }
+
+
+    public String name() {
+        return name;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.manikanta.worker;
+
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of a {@link BoundedWorkerPool}.
+ * <p>
+ * At most <code>maxConcurrency + queueSize</code> tasks are accepted at any time, anything above is rejected
+ * right away instead of waiting in the (otherwise unbounded) worker queue.
+ */
+public class WorkerPoolOptions {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int DEFAULT_QUEUE_SIZE = 64;
+    public static final long DEFAULT_MAX_EXECUTE_TIME_MS = TimeUnit.SECONDS.toMillis(60);
+
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private long maxExecuteTimeMs = DEFAULT_MAX_EXECUTE_TIME_MS;
+
+
+    public WorkerPoolOptions() {
+    }
+
+    // Through the setters, so a config file is validated as code is
+    public WorkerPoolOptions(JsonObject json) {
+        setMaxConcurrency(json.getInteger("maxConcurrency", DEFAULT_MAX_CONCURRENCY));
+        setQueueSize(json.getInteger("queueSize", DEFAULT_QUEUE_SIZE));
+        setMaxExecuteTimeMs(json.getLong("maxExecuteTimeMs", DEFAULT_MAX_EXECUTE_TIME_MS));
+    }
+
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // Number of worker threads
+    public WorkerPoolOptions setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    // Tasks allowed to wait for a worker thread
+    public WorkerPoolOptions setQueueSize(int queueSize) {
+        if (queueSize < 0) {
+            throw new IllegalArgumentException("queueSize must be >= 0");
+        }
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    public long getMaxExecuteTimeMs() {
+        return maxExecuteTimeMs;
+    }
+
+    // Execution time after which Vert.x's blocked thread checker warns about the worker
+    public WorkerPoolOptions setMaxExecuteTimeMs(long maxExecuteTimeMs) {
+        this.maxExecuteTimeMs = maxExecuteTimeMs;
+        return this;
+    }
+}
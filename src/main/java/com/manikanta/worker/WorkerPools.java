@@ -0,0 +1,79 @@
+package com.manikanta.worker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the {@link BoundedWorkerPool}s of a Vertx instance, shared by all its verticles (so the bounds
+ * hold for the pool as a whole, not per verticle instance).
+ * <p>
+ * Pools can be declared in config:
+ * <pre>
+ * "workerPools": {
+ *   "crm": { "maxConcurrency": 8, "queueSize": 100, "maxExecuteTimeMs": 5000 }
+ * }
+ * </pre>
+ */
+public final class WorkerPools implements Shareable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerPools.class);
+
+    private static final String SHARED_MAP = WorkerPools.class.getName();
+
+    private final Vertx vertx;
+    private final Map<String, BoundedWorkerPool> pools = new ConcurrentHashMap<>();
+
+
+    private WorkerPools(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+
+    public static WorkerPools get(Vertx vertx) {
+        LocalMap<String, WorkerPools> registries = vertx.sharedData().getLocalMap(SHARED_MAP);
+
+        WorkerPools workerPools = registries.get(SHARED_MAP);
+        if (workerPools == null) {
+            WorkerPools created = new WorkerPools(vertx);
+            workerPools = registries.putIfAbsent(SHARED_MAP, created);
+            if (workerPools == null) {
+                workerPools = created;
+            }
+        }
+        return workerPools;
+    }
+
+
+    // Creates the pools declared in the given config (name -> options); existing pools are kept as they are
+    public WorkerPools configure(JsonObject poolsConfig) {
+        poolsConfig.forEach(entry -> pool(entry.getKey(), new WorkerPoolOptions((JsonObject) entry.getValue())));
+        return this;
+    }
+
+    public BoundedWorkerPool pool(String name) {
+        return pool(name, new WorkerPoolOptions());
+    }
+
+    // Options are only used when the pool doesn't exist yet
+    public BoundedWorkerPool pool(String name, WorkerPoolOptions options) {
+        return pools.computeIfAbsent(name, poolName -> {
+            LOG.info("Worker pool '{}': {} threads, queue of {}",
+                     poolName,
+                     options.getMaxConcurrency(),
+                     options.getQueueSize());
+            return new BoundedWorkerPool(vertx, poolName, options);
+        });
+    }
+
+    public void close() {
+        pools.values().forEach(BoundedWorkerPool::close);
+        pools.clear();
+    }
+}
@@ -1,7 +1,11 @@
 package com.manikanta;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.manikanta.worker.BoundedWorkerPool;
+import com.manikanta.worker.WorkerPoolOptions;
+import com.manikanta.worker.WorkerPools;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
@@ -130,6 +134,42 @@ public class BlockingCodeExample {
         async.await(10_000);
     }
 
+    @Test
+    public void run_blocking_code_with_bounded_worker_pool(TestContext context) {
+        int tasks = 6;
+        Async async = context.async(tasks);
+
+        // 2 threads + 2 queued tasks: the remaining 2 tasks are rejected right away, instead of piling up
+        BoundedWorkerPool pool = WorkerPools.get(vertx)
+                                            .pool("bounded-blocking-worker-pool",
+                                                  new WorkerPoolOptions().setMaxConcurrency(2)
+                                                                         .setQueueSize(2));
+
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int i = 0; i < tasks; i++) {
+            pool.<Integer>executeBlocking(future -> {
+                sleep(500);
+                future.complete(1_000);
+            }).setHandler(ar -> {
+                if (ar.succeeded()) {
+                    LOG.info("Long running operation result: {}", ar.result());
+                } else if (BoundedWorkerPool.isRejected(ar.cause())) {
+                    // An HTTP handler would respond with BoundedWorkerPool.OVERLOADED (503) here
+                    LOG.info("Rejected: {}", ar.cause().getMessage());
+                    rejected.incrementAndGet();
+                } else {
+                    context.fail(ar.cause());
+                }
+                async.countDown();
+            });
+        }
+
+        async.await(5_000);
+        context.assertEquals(2, rejected.get());
+    }
+
+
     private class TestBlockingWorkerVerticle extends AbstractVerticle {
         @Override
         public void start() throws Exception {
@@ -153,4 +193,12 @@ public class BlockingCodeExample {
         }
         return 1_000;
     }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
 }
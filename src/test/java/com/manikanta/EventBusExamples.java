@@ -2,9 +2,24 @@ package com.manikanta;
 
 import static com.manikanta.TestUtils.randomInt;
 
+import com.manikanta.cluster.ClusterSupport;
+import com.manikanta.cluster.NodeAwareEventBus;
+import com.manikanta.cluster.NodeAwareEventBus.NodeAwareConsumer;
+import com.manikanta.eventbus.BatchingPublisher;
+import com.manikanta.eventbus.EventBusCodecs;
+import com.manikanta.eventbus.FlowControlledSender;
+import com.manikanta.eventbus.StockTick;
+import com.manikanta.eventbus.StockTickCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -54,6 +69,90 @@ public class EventBusExamples {
     }
 
 
+    @Test
+    public void pub_sub_with_custom_codec(TestContext context) {
+        Async async = context.strictAsync(10);
+
+        EventBus eventBus = vertx.eventBus();
+        EventBusCodecs.register(vertx); // StockTick codec: binary across nodes, same instance for local consumers
+
+        StockTick tick = new StockTick("GOOG", 120_550, System.currentTimeMillis());
+
+        for (int i = 0; i < 10; i++) {
+            eventBus.<StockTick>localConsumer("stocks.google.ticks", message -> {
+                LOG.info("New Google stock tick: " + message.body());
+                context.assertTrue(tick == message.body()); // Not even copied
+                async.countDown();
+            });
+        }
+
+        vertx.setTimer(300, timerId -> {
+            eventBus.publish("stocks.google.ticks", tick);
+        });
+
+
+        async.await(5_000);
+    }
+
+
+    // Wire format, as sent to the other nodes of a cluster
+    @Test
+    public void encode_custom_codec_to_wire(TestContext context) {
+        StockTickCodec codec = new StockTickCodec();
+
+        StringBuilder symbol = new StringBuilder();
+        while (symbol.length() < 20_000) {
+            symbol.append("\u00e9"); // 2 bytes in UTF-8: 40KB, over a signed short length
+        }
+        StockTick tick = new StockTick(symbol.toString(), 120_550, System.currentTimeMillis());
+
+        Buffer wire = Buffer.buffer().appendByte((byte) 1); // Decoded from an offset, as in an event bus frame
+        codec.encodeToWire(wire, tick);
+        StockTick decoded = codec.decodeFromWire(1, wire);
+
+        context.assertEquals(tick.symbol(), decoded.symbol());
+        context.assertEquals(tick.price(), decoded.price());
+        context.assertEquals(tick.timestamp(), decoded.timestamp());
+
+        // Too long for the length prefix: rejected rather than corrupted
+        StockTick tooLong = new StockTick(symbol.append(symbol).toString(), 1, 1);
+        try {
+            codec.encodeToWire(Buffer.buffer(), tooLong);
+            context.fail("Encoded a symbol over 64KB");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void pub_sub_batched(TestContext context) {
+        int ticks = 1_000;
+        int consumers = 10;
+        Async async = context.strictAsync(ticks * consumers);
+
+        EventBus eventBus = vertx.eventBus();
+        EventBusCodecs.register(vertx);
+
+        // Consumers still handle one tick at a time, but get one message per batch
+        for (int i = 0; i < consumers; i++) {
+            BatchingPublisher.<StockTick>localConsumer(eventBus, "stocks.google.batched", tick -> async.countDown());
+        }
+
+        vertx.runOnContext(v -> {
+            // Up to 100 ticks per message, each tick delayed by 10ms at most
+            BatchingPublisher<StockTick> publisher = new BatchingPublisher<>(vertx, StockTick.class, 100, 10);
+
+            for (int i = 0; i < ticks; i++) {
+                publisher.publish("stocks.google.batched",
+                                  new StockTick("GOOG", randomInt(), System.currentTimeMillis()));
+            }
+        });
+
+
+        async.await(5_000);
+    }
+
+
     @Test
     public void one_to_one(TestContext context) {
         Async async = context.strictAsync(1);
@@ -105,4 +204,165 @@ public class EventBusExamples {
         async.await(3_000);
     }
 
+
+    @Test
+    public void request_response_with_flow_control(TestContext context) {
+        int requests = 50;
+        int credits = 4;
+        Async async = context.strictAsync(requests);
+
+        EventBus eventBus = vertx.eventBus();
+
+        // Slow consumer (10ms per message), allowing 4 requests in flight per producer
+        FlowControlledSender.<String>localConsumer(eventBus, "chatroom_2", credits, message -> {
+            vertx.setTimer(10, timerId -> message.reply("Subscriber message " + randomInt()));
+        });
+
+        vertx.runOnContext(v -> {
+            FlowControlledSender sender = new FlowControlledSender(eventBus, "chatroom_2", 0);
+            int[] sent = new int[1];
+
+            // Faster producer, paused while all its credits are in use instead of piling up requests
+            vertx.setPeriodic(1, timerId -> {
+                if (sent[0] == requests) {
+                    vertx.cancelTimer(timerId);
+                    return;
+                }
+                if (sender.writeQueueFull()) {
+                    return;
+                }
+
+                sent[0]++;
+                sender.<String>request("Publisher message " + randomInt()).setHandler(replyAR -> {
+                    if (replyAR.succeeded()) {
+                        LOG.info("Message from subscriber: " + replyAR.result().body());
+                        async.countDown();
+                    } else {
+                        context.fail(replyAR.cause());
+                    }
+                });
+
+                context.assertTrue(sender.inFlight() <= credits);
+            });
+        });
+
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void flow_control_with_malformed_credits_and_metrics_per_sender(TestContext context) {
+        Async async = context.async();
+
+        EventBus eventBus = vertx.eventBus();
+        MeterRegistry registry = ServerMetrics.registry();
+
+        // Not a flow controlled consumer: its credits header is garbage
+        eventBus.<String>localConsumer("chatroom_3", message ->
+            message.reply("pong", new DeliveryOptions().addHeader(FlowControlledSender.CREDITS_HEADER, "lots")));
+
+        vertx.runOnContext(v -> {
+            FlowControlledSender first = new FlowControlledSender(eventBus, "chatroom_3", 0);
+            FlowControlledSender second = new FlowControlledSender(eventBus, "chatroom_3", 0);
+            context.assertEquals(2, registry.find("eventbus_flow_in_flight")
+                                            .tag("address", "chatroom_3")
+                                            .gauges()
+                                            .size()); // One per sender
+
+            first.<String>request("ping").setHandler(context.asyncAssertSuccess(reply -> {
+                context.assertEquals("pong", reply.body()); // Completed all the same
+                context.assertEquals(1, first.credits()); // Kept
+
+                first.close();
+                second.close();
+                context.assertTrue(registry.find("eventbus_flow_in_flight")
+                                           .tag("address", "chatroom_3")
+                                           .gauges()
+                                           .isEmpty());
+                async.complete();
+            }));
+        });
+
+        async.await(5_000);
+    }
+
+    // Two clustered nodes (Hazelcast over loopback) in this JVM, both consuming the same address
+    @Test
+    public void node_aware_request_response(TestContext context) {
+        Async async = context.async();
+
+        // Away from the default port, so the test doesn't join a running server's cluster
+        JsonObject clusterConfig = new JsonObject().put(ServerConfig.CLUSTER, true)
+                                                   .put(ServerConfig.CLUSTER_PORT, 5821);
+
+        startNode(clusterConfig).setHandler(context.asyncAssertSuccess(localNode -> {
+            startNode(clusterConfig).setHandler(context.asyncAssertSuccess(remoteNode -> {
+                NodeAwareEventBus localBus = new NodeAwareEventBus(localNode);
+                NodeAwareEventBus remoteBus = new NodeAwareEventBus(remoteNode);
+
+                // Each consumer answers with the node it runs on
+                NodeAwareConsumer localConsumer =
+                    localBus.consumer("quotes", message -> message.reply(localBus.nodeId()));
+                remoteBus.consumer("quotes", message -> message.reply(remoteBus.nodeId()));
+
+                // Consumer registrations are propagated asynchronously to the other node
+                vertx.setTimer(1_000, timerId -> {
+                    // Plain send: round-robin over both nodes, node aware send: the local consumer
+                    Future<String> local = sendFrom(localBus, 4);
+                    Future<Message<String>> remote = Future.future();
+                    localBus.sendToNode(remoteBus.nodeId(), "quotes", "quote?", remote);
+
+                    CompositeFuture.all(local, remote).setHandler(context.asyncAssertSuccess(replies -> {
+                        context.assertEquals(localBus.nodeId(), local.result());
+                        context.assertEquals(remoteBus.nodeId(), remote.result().body());
+
+                        // Unregistered twice, but counted once: a new local consumer is still used first
+                        localConsumer.unregister();
+                        localConsumer.unregister();
+                        localBus.consumer("quotes", message -> message.reply(localBus.nodeId()));
+
+                        sendFrom(localBus, 4).setHandler(context.asyncAssertSuccess(nodeId -> {
+                            context.assertEquals(localBus.nodeId(), nodeId);
+
+                            localNode.close(context.asyncAssertSuccess(closed -> {
+                                remoteNode.close(context.asyncAssertSuccess(v -> async.complete()));
+                            }));
+                        }));
+                    }));
+                });
+            }));
+        }));
+
+        async.awaitSuccess(60_000);
+    }
+
+    private Future<Vertx> startNode(JsonObject clusterConfig) {
+        Future<Vertx> node = Future.future();
+        ClusterSupport.createVertx(new VertxOptions(), clusterConfig, node);
+        return node;
+    }
+
+    // Sends some requests one after the other, the node that answered them all (fails if they came from several)
+    private Future<String> sendFrom(NodeAwareEventBus bus, int requests) {
+        Future<String> nodeId = Future.future();
+
+        bus.<String>send("quotes", "quote?", replyAR -> {
+            if (replyAR.failed()) {
+                nodeId.fail(replyAR.cause());
+            } else if (requests == 1) {
+                nodeId.complete(replyAR.result().body());
+            } else {
+                sendFrom(bus, requests - 1).setHandler(ar -> {
+                    if (ar.succeeded() && !ar.result().equals(replyAR.result().body())) {
+                        nodeId.fail("Answered by " + ar.result() + " and " + replyAR.result().body());
+                    } else {
+                        nodeId.handle(ar);
+                    }
+                });
+            }
+        });
+
+        return nodeId;
+    }
+
 }
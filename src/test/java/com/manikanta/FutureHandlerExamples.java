@@ -2,6 +2,12 @@ package com.manikanta;
 
 import static com.manikanta.TestUtils.mimicAsyncOp;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.manikanta.cache.AsyncLoadingCache;
+import com.manikanta.orchestration.FanOut;
+import com.manikanta.orchestration.Hedger;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -174,6 +180,166 @@ public class FutureHandlerExamples {
     }
 
 
+    // Fan-out with an overall latency budget: whatever made it in time is used (partial results)
+    @Test
+    public void test_orchestrate_concurrent_futures_within_budget(TestContext context) {
+        Async async = context.async();
+
+        Future<JsonObject> userPurchases = getUserPurchaseDataFromCRM(); // ~500ms
+        Future<JsonObject> userSocialInfo = getUserSocialInfoFromTwitter(); // ~400ms
+
+        FanOut.joinWithin(vertx, 450, userPurchases, userSocialInfo)
+              .setHandler(ar -> {
+                  CompositeFuture results = ar.result();
+
+                  // CRM is over budget, the response goes out with the social info only
+                  LOG.info("Purchase info: {}, Social info: {}",
+                           results.succeeded(0) ? results.resultAt(0) : "<not available>",
+                           results.succeeded(1) ? results.resultAt(1) : "<not available>");
+                  context.assertFalse(results.isComplete(0));
+                  context.assertTrue(results.succeeded(1));
+                  async.complete();
+              });
+
+        // - All or nothing, failing with a TimeoutException when over budget:
+        //       FanOut.all(vertx, 450, userPurchases, userSocialInfo)
+        //
+        // - Slow dependency, second attempt after its p95 latency: see test_hedge_slow_calls
+
+        async.awaitSuccess(2_000);
+    }
+
+
+    // Hedged requests: a second attempt after the hedge delay, the first success wins
+    @Test
+    public void test_hedge_slow_calls(TestContext context) {
+        Async async = context.async();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Hedgers are per verticle (not thread safe), so everything runs on one context
+        vertx.runOnContext(v -> {
+            Hedger crmHedger = new Hedger(vertx, "crm-example", 100, 50);
+
+            // First attempt stuck (500ms), the hedge fired after 100ms answers in 50ms
+            crmHedger.call(() -> attempts.incrementAndGet() == 1
+                                 ? mimicAsyncOp(vertx, 500, "first")
+                                 : mimicAsyncOp(vertx, 50, "hedge"))
+                     .setHandler(context.asyncAssertSuccess(hedgeWon -> {
+                         context.assertEquals("hedge", hedgeWon);
+                         context.assertEquals(2, attempts.getAndSet(0));
+
+                         // Both attempts running, the first one still answers first
+                         crmHedger.call(() -> attempts.incrementAndGet() == 1
+                                              ? mimicAsyncOp(vertx, 150, "first")
+                                              : mimicAsyncOp(vertx, 400, "hedge"))
+                                  .setHandler(context.asyncAssertSuccess(firstWon -> {
+                                      context.assertEquals("first", firstWon);
+                                      context.assertEquals(2, attempts.getAndSet(0));
+
+                                      // Fails only once both attempts failed
+                                      crmHedger.<String>call(() -> attempts.incrementAndGet() == 1
+                                                                   ? failAfter(150, "first failed")
+                                                                   : failAfter(100, "hedge failed"))
+                                               .setHandler(context.asyncAssertFailure(e -> {
+                                                   context.assertEquals(2, attempts.get());
+                                                   context.assertEquals("hedge failed", e.getMessage());
+                                                   LOG.info("Hedged call failed: {}", e.getMessage());
+                                                   async.complete();
+                                               }));
+                                  }));
+                     }));
+        });
+
+        async.awaitSuccess(2_000);
+    }
+
+    private <T> Future<T> failAfter(long delay, String reason) {
+        Future<T> future = Future.future();
+        vertx.setTimer(delay, timerId -> future.fail(reason));
+        return future;
+    }
+
+
+    // Read-through cache in front of a slow backend call
+    @Test
+    public void test_read_through_cache(TestContext context) {
+        Async async = context.async(3);
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        // Caches are per verticle (not thread safe), so everything runs on one context
+        vertx.runOnContext(v -> {
+            AsyncLoadingCache<String, JsonObject> purchaseCache =
+                new AsyncLoadingCache<>("user-purchases", 10_000, 1, TimeUnit.MINUTES, userId -> {
+                    backendCalls.incrementAndGet();
+                    return getUserPurchaseDataFromCRM();
+                });
+
+            // Concurrent misses for the same user share the single in-flight CRM call
+            for (int i = 0; i < 2; i++) {
+                purchaseCache.get("mani").setHandler(context.asyncAssertSuccess(purchases -> async.countDown()));
+            }
+
+            vertx.setTimer(1_000, timerId -> {
+                // Loaded by now: served from the cache without any backend call
+                purchaseCache.get("mani").setHandler(context.asyncAssertSuccess(purchases -> {
+                    LOG.info("Purchase info: {}, hits: {}, misses: {}",
+                             purchases,
+                             purchaseCache.hitCount(),
+                             purchaseCache.missCount());
+                    context.assertEquals(1, backendCalls.get());
+                    async.countDown();
+                }));
+            });
+        });
+
+        async.awaitSuccess(2_000);
+    }
+
+
+    // TTL set by the loader for each value, and invalidation of a load still in flight
+    @Test
+    public void test_read_through_cache_entry_ttl(TestContext context) {
+        Async async = context.async();
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        vertx.runOnContext(v -> {
+            AsyncLoadingCache<String, String> quotes =
+                AsyncLoadingCache.withEntryTtl("quotes", 100, 1, TimeUnit.MINUTES, symbol -> {
+                    backendCalls.incrementAndGet();
+                    Future<AsyncLoadingCache.Expiring<String>> quote = Future.future();
+                    // Volatile quotes are short-lived
+                    long ttlMs = symbol.equals("VOLATILE") ? 50 : 60_000;
+                    vertx.setTimer(20, timerId -> quote.complete(AsyncLoadingCache.Expiring.of(symbol + "-" + backendCalls.get(),
+                                                                                               ttlMs, TimeUnit.MILLISECONDS)));
+                    return quote;
+                });
+
+            quotes.get("STABLE").setHandler(context.asyncAssertSuccess(stable -> {
+                quotes.get("VOLATILE").setHandler(context.asyncAssertSuccess(volatileQuote -> {
+
+                    // Invalidated while loading: the waiter gets its value, but it isn't cached
+                    quotes.get("PENDING").setHandler(context.asyncAssertSuccess());
+                    quotes.invalidate("PENDING");
+
+                    vertx.setTimer(100, timerId -> {
+                        context.assertEquals(2, quotes.size()); // STABLE and VOLATILE (expired, not read since)
+
+                        quotes.get("STABLE").setHandler(context.asyncAssertSuccess(cached -> {
+                            context.assertEquals(stable, cached);
+                            quotes.get("VOLATILE").setHandler(context.asyncAssertSuccess(reloaded -> {
+                                context.assertNotEquals(volatileQuote, reloaded); // Expired after 50ms
+                                context.assertEquals(4, backendCalls.get());
+                                async.complete();
+                            }));
+                        }));
+                    });
+                }));
+            }));
+        });
+
+        async.awaitSuccess(2_000);
+    }
+
     // Sequential composition: Future.compose()
     @Test
     public void test_orchestrate_futures_in_sequence(TestContext context) {
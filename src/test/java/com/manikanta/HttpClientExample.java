@@ -1,9 +1,16 @@
 package com.manikanta;
 
+import com.manikanta.upstream.JsonArrayStream;
+import com.manikanta.upstream.UpstreamClient;
+import com.manikanta.upstream.UpstreamClients;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.OpenSSLEngineOptions;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -71,6 +78,138 @@ public class HttpClientExample {
     }
 
 
+    @Test
+    public void test_pooled_upstream_client(TestContext context) {
+        int requests = 50;
+        Async async = context.strictAsync(requests);
+
+        // Local stub upstream, accepting HTTP/1.1 & HTTP/2 (prior knowledge) over clear text
+        vertx.createHttpServer()
+             .requestHandler(req -> req.response().end("pong " + req.version()))
+             .listen(9980, context.asyncAssertSuccess(server -> {
+
+                 JsonObject upstreamsConfig = new JsonObject()
+                     .put("stub", new JsonObject()
+                         .put("host", "localhost")
+                         .put("port", 9980)
+                         .put("protocol", "HTTP_2")
+                         .put("http2MultiplexingLimit", 100));
+
+                 // Once per verticle, not per request: all the requests below share one HTTP/2 connection
+                 UpstreamClients upstreams = new UpstreamClients(vertx, upstreamsConfig);
+                 UpstreamClient stub = upstreams.client("stub");
+
+                 for (int i = 0; i < requests; i++) {
+                     stub.get("/ping").setHandler(context.asyncAssertSuccess(response -> {
+                         context.assertEquals(200, response.statusCode());
+                         context.assertEquals("pong HTTP_2", response.body().toString());
+
+                         async.countDown();
+                         if (async.count() == 0) {
+                             upstreams.close();
+                             server.close();
+                         }
+                     }));
+                 }
+             }));
+
+        async.await(5_000);
+    }
+
+
+    @Test
+    public void test_streaming_json_array(TestContext context) {
+        int elements = 10_000;
+        Async async = context.async();
+
+        // Stub upstream streaming a large JSON array, 100 elements per chunk
+        vertx.createHttpServer()
+             .requestHandler(req -> writeJsonArray(req.response(), elements))
+             .listen(9982, context.asyncAssertSuccess(server -> {
+
+                 UpstreamClients upstreams = new UpstreamClients(vertx, new JsonObject()
+                     .put("stub", new JsonObject().put("host", "localhost").put("port", 9982)));
+
+                 upstreams.client("stub").stream(HttpMethod.GET, "/quotes").setHandler(context.asyncAssertSuccess(response -> {
+                     int[] received = new int[1];
+
+                     // One element at a time, never the whole body
+                     JsonArrayStream quotes = new JsonArrayStream(response);
+                     quotes.exceptionHandler(context::fail)
+                           .endHandler(v -> {
+                               context.assertEquals(elements, received[0]);
+                               upstreams.close();
+                               server.close();
+                               async.complete();
+                           })
+                           .handler(quote -> {
+                               context.assertEquals(received[0]++, quote.getInteger("id"));
+
+                               // Slow consumer: back-pressure pauses the upstream response
+                               if (received[0] % 1_000 == 0) {
+                                   quotes.pause();
+                                   vertx.setTimer(10, timerId -> quotes.resume());
+                               }
+                           });
+                 }));
+             }));
+
+        async.await(5_000);
+    }
+
+
+    @Test
+    public void test_pipe_upstream_response(TestContext context) {
+        int elements = 10_000;
+        Async async = context.async();
+
+        UpstreamClients upstreams = new UpstreamClients(vertx, new JsonObject()
+            .put("stub", new JsonObject().put("host", "localhost").put("port", 9983)));
+
+        // Stub upstream, and a front server piping its responses without buffering them
+        vertx.createHttpServer()
+             .requestHandler(req -> writeJsonArray(req.response(), elements))
+             .listen(9983, context.asyncAssertSuccess(upstream -> {
+                 vertx.createHttpServer()
+                      .requestHandler(req -> upstreams.client("stub").pipeTo(req.uri(), req.response()))
+                      .listen(9984, context.asyncAssertSuccess(front -> {
+
+                          vertx.createHttpClient().getNow(9984, "localhost", "/quotes", response -> {
+                              response.bodyHandler(body -> {
+                                  context.assertEquals(200, response.statusCode());
+                                  context.assertEquals("application/json", response.getHeader("content-type"));
+                                  context.assertEquals(elements, body.toJsonArray().size());
+
+                                  upstreams.close();
+                                  upstream.close();
+                                  front.close();
+                                  async.complete();
+                              });
+                          });
+                      }));
+             }));
+
+        async.await(5_000);
+    }
+
+    private void writeJsonArray(HttpServerResponse response, int elements) {
+        response.setChunked(true)
+                .putHeader("content-type", "application/json");
+
+        Buffer chunk = Buffer.buffer("[");
+        for (int i = 0; i < elements; i++) {
+            if (i > 0) chunk.appendString(",");
+            chunk.appendString(new JsonObject().put("id", i).put("symbol", "GOOG").put("price", i * 10).encode());
+
+            if (i % 100 == 99) {
+                response.write(chunk);
+                chunk = Buffer.buffer();
+            }
+        }
+        response.end(chunk.appendString("]"));
+    }
+
+
     private HttpClientOptions prepareHttpClientOptions() {
         return new HttpClientOptions()
             // HTTP/2 config
@@ -2,14 +2,39 @@ package com.manikanta;
 
 import static com.manikanta.TestUtils.randomInt;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Date;
-
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import javax.net.ssl.SSLSession;
+
+import com.manikanta.routing.TrieRouter;
+import com.manikanta.tls.SelfSignedCertificates;
+import com.manikanta.tls.TlsOptions;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -39,6 +64,570 @@ public class HttpServerExample {
     }
 
 
+    @Test
+    public void proxy_requests_to_upstream(TestContext context) {
+        Async async = context.async(2);
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9985)
+            .put(ServerConfig.UPSTREAMS, new JsonObject()
+                .put("echo", new JsonObject().put("host", "localhost").put("port", 9986))
+                .put("down", new JsonObject().put("host", "localhost").put("port", 9987)))
+            .put(ServerConfig.PROXY, new JsonObject()
+                .put("/echo", "echo")
+                .put("/down", "down"));
+
+        // Upstream echoing the request body, and the headers it got
+        vertx.createHttpServer()
+             .requestHandler(req -> {
+                 req.bodyHandler(body -> req.response()
+                                            .putHeader("x-hop", "dropped")
+                                            .putHeader("connection", "keep-alive, x-hop")
+                                            .putHeader("x-echo-forwarded-for", req.getHeader("x-forwarded-for"))
+                                            .putHeader("x-echo-hop", String.valueOf(req.getHeader("x-hop")))
+                                            .putHeader("x-echo-e2e", String.valueOf(req.getHeader("x-e2e")))
+                                            .end(body));
+             })
+             .listen(9986, context.asyncAssertSuccess(upstream -> {
+
+                 vertx.deployVerticle(HttpServerVerticle::new,
+                                      new DeploymentOptions().setConfig(config),
+                                      context.asyncAssertSuccess(deploymentId -> {
+
+                     HttpClient client = vertx.createHttpClient();
+
+                     client.post(9985, "localhost", "/echo/quotes?symbol=GOOG", response -> {
+                         response.bodyHandler(body -> {
+                             context.assertEquals(200, response.statusCode());
+                             context.assertEquals("Buy GOOG", body.toString());
+                             context.assertEquals("127.0.0.1", response.getHeader("x-echo-forwarded-for"));
+                             context.assertEquals("null", response.getHeader("x-echo-hop")); // Hop-by-hop, not forwarded
+                             context.assertEquals("1", response.getHeader("x-echo-e2e"));
+                             context.assertNull(response.getHeader("x-hop"));
+                             async.countDown();
+                         });
+                     }).putHeader("connection", "keep-alive, x-hop")
+                           .putHeader("x-hop", "1")
+                           .putHeader("x-e2e", "1")
+                           .end("Buy GOOG");
+
+                     client.getNow(9985, "localhost", "/down", response -> {
+                         context.assertEquals(502, response.statusCode()); // Nothing listening upstream
+                         async.countDown();
+                     });
+                 }));
+             }));
+
+        async.await(5_000);
+    }
+
+
+    @Test
+    public void serve_precompressed_static_assets(TestContext context) throws IOException {
+        Async async = context.async(7);
+
+        Path root = Files.createTempDirectory("static");
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            script.append("console.log('line ").append(i).append("');\n");
+        }
+        Files.write(root.resolve("app.js"), script.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("app.css"), "body { margin: 0; padding: 0; }".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("app.css.br"), new byte[]{1, 2, 3}); // Stands for the Brotli encoded file
+        byte[] image = new byte[4096];
+        new Random(1).nextBytes(image); // Incompressible
+        Files.write(root.resolve("logo.png"), image);
+        Files.write(root.resolve("release.tar.gz"), image); // No release.tar: a plain file, not a variant
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9978)
+            .put(ServerConfig.STATIC_ROOT, root.toString());
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            // The client doesn't decompress (tryUseCompression off), so the bodies are as sent
+            HttpClient client = vertx.createHttpClient();
+
+            client.get(9978, "localhost", "/static/app.js", response -> response.bodyHandler(body -> {
+                context.assertEquals("gzip", response.getHeader("content-encoding"));
+                context.assertEquals("accept-encoding", response.getHeader("vary"));
+                context.assertTrue(body.length() < script.length());
+                context.assertEquals(script.toString(), gunzip(body.getBytes()));
+                async.countDown();
+            })).putHeader("accept-encoding", "gzip, deflate").end();
+
+            client.get(9978, "localhost", "/static/app.js", response -> response.bodyHandler(body -> {
+                context.assertNull(response.getHeader("content-encoding"));
+                context.assertEquals(script.toString(), body.toString());
+                async.countDown();
+            })).end();
+
+            client.get(9978, "localhost", "/static/app.css", response -> response.bodyHandler(body -> {
+                context.assertEquals("br", response.getHeader("content-encoding"));
+                context.assertEquals(3, body.length());
+                async.countDown();
+            })).putHeader("accept-encoding", "gzip, br").end();
+
+            client.get(9978, "localhost", "/static/logo.png", response -> response.bodyHandler(body -> {
+                context.assertEquals("identity", response.getHeader("content-encoding")); // Not worth it
+                context.assertEquals(image.length, body.length());
+                async.countDown();
+            })).putHeader("accept-encoding", "gzip").end();
+
+            client.get(9978, "localhost", "/", response -> response.bodyHandler(body -> {
+                context.assertEquals("identity", response.getHeader("content-encoding")); // Below the threshold
+                context.assertEquals("Hello world", body.toString());
+                async.countDown();
+            })).putHeader("accept-encoding", "gzip").end();
+
+            client.getNow(9978, "localhost", "/static/release.tar.gz", response -> response.bodyHandler(body -> {
+                context.assertEquals(200, response.statusCode());
+                context.assertEquals(Buffer.buffer(image), body);
+                async.countDown();
+            }));
+
+            client.getNow(9978, "localhost", "/static/app.css.br", response -> {
+                context.assertEquals(404, response.statusCode()); // Only sent as the variant of app.css
+                async.countDown();
+            });
+        }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void serve_static_files_with_validators_and_ranges(TestContext context) throws IOException {
+        Async async = context.async(11);
+
+        Path root = Files.createTempDirectory("static");
+        Files.write(root.resolve("small.txt"), "0123456789".getBytes(StandardCharsets.UTF_8));
+        byte[] large = new byte[64 * 1024];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) ('a' + i % 26);
+        }
+        Files.write(root.resolve("large.txt"), large);
+        Files.write(root.resolve("a+b.txt"), "plus".getBytes(StandardCharsets.UTF_8));
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9977)
+            .put(ServerConfig.COMPRESSION, false) // Zero-copy sendFile
+            .put(ServerConfig.STATIC_ROOT, root.toString())
+            .put(ServerConfig.STATIC_CACHE_MAX_FILE_SIZE, 1024); // large.txt is sent from disk
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            HttpClient client = vertx.createHttpClient();
+
+            // Cached file, then revalidated with its ETag
+            client.getNow(9977, "localhost", "/static/small.txt", response -> response.bodyHandler(body -> {
+                context.assertEquals(200, response.statusCode());
+                context.assertEquals("0123456789", body.toString());
+                context.assertNotNull(response.getHeader("last-modified"));
+
+                client.get(9977, "localhost", "/static/small.txt", notModified -> {
+                    context.assertEquals(304, notModified.statusCode());
+                    async.countDown();
+                }).putHeader("if-none-match", "\"other\", W/" + response.getHeader("etag")).end();
+
+                // Another tag containing the current one
+                String etag = response.getHeader("etag");
+                client.get(9977, "localhost", "/static/small.txt", modified -> {
+                    context.assertEquals(200, modified.statusCode());
+                    async.countDown();
+                }).putHeader("if-none-match", "\"1" + etag.substring(1)).end();
+            }));
+
+            client.get(9977, "localhost", "/static/small.txt", response -> response.bodyHandler(body -> {
+                context.assertEquals(206, response.statusCode());
+                context.assertEquals("bytes 2-4/10", response.getHeader("content-range"));
+                context.assertEquals("234", body.toString());
+                async.countDown();
+            })).putHeader("range", "bytes=2-4").end();
+
+            client.get(9977, "localhost", "/static/small.txt", response -> {
+                context.assertEquals(416, response.statusCode());
+                context.assertEquals("bytes */10", response.getHeader("content-range"));
+                async.countDown();
+            }).putHeader("range", "bytes=10-").end();
+
+            // Large file, sent from disk
+            client.getNow(9977, "localhost", "/static/large.txt", response -> response.bodyHandler(body -> {
+                context.assertEquals(200, response.statusCode());
+                context.assertEquals(large.length, body.length());
+                context.assertEquals("bytes", response.getHeader("accept-ranges"));
+                async.countDown();
+            }));
+
+            client.get(9977, "localhost", "/static/large.txt", response -> response.bodyHandler(body -> {
+                context.assertEquals(206, response.statusCode());
+                context.assertEquals("bytes 65526-65535/65536", response.getHeader("content-range"));
+                context.assertEquals(new String(large, 65526, 10, StandardCharsets.US_ASCII), body.toString());
+                async.countDown();
+            })).putHeader("range", "bytes=-10").end();
+
+            client.getNow(9977, "localhost", "/static/../../etc/hostname", response -> {
+                context.assertEquals(404, response.statusCode()); // Outside the root
+                async.countDown();
+            });
+
+            // Malformed escapes and NUL are answered, not left hanging
+            client.getNow(9977, "localhost", "/static/%zz", response -> {
+                context.assertEquals(400, response.statusCode());
+                async.countDown();
+            });
+            client.getNow(9977, "localhost", "/static/small.txt%00", response -> {
+                context.assertEquals(404, response.statusCode());
+                async.countDown();
+            });
+
+            // Decoded as a path: '+' stays a plus sign
+            client.getNow(9977, "localhost", "/static/a+b%2etxt", response -> response.bodyHandler(body -> {
+                context.assertEquals("plus", body.toString());
+                async.countDown();
+            }));
+
+            // Sliced from the path the router matched
+            client.getNow(9977, "localhost", "//static/small.txt", response -> response.bodyHandler(body -> {
+                context.assertEquals("0123456789", body.toString());
+                async.countDown();
+            }));
+        }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void reject_requests_over_admission_limits(TestContext context) {
+        Async async = context.async();
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9975)
+            .put(ServerConfig.ADMISSION, new JsonObject()
+                .put("clientRate", 1)
+                .put("clientBurst", 3)
+                .put("routes", new JsonObject().put("/limited", new JsonObject().put("rate", 1).put("burst", 1)))
+                .put("concurrency", new JsonObject().put("initialLimit", 16).put("minLimit", 1)));
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            HttpClient client = vertx.createHttpClient();
+
+            // One after the other, as the buckets refill a token per second only
+            client.getNow(9975, "localhost", "/limited", first -> {
+                context.assertEquals(200, first.statusCode());
+
+                client.getNow(9975, "localhost", "/limited", second -> {
+                    context.assertEquals(429, second.statusCode()); // Route limit, the client token is given back
+
+                    client.getNow(9975, "localhost", "//limited/", sameRoute -> {
+                        context.assertEquals(429, sameRoute.statusCode()); // Routed to "/limited" too
+
+                        client.getNow(9975, "localhost", "/limitedness", third -> {
+                            context.assertEquals(200, third.statusCode()); // Not under "/limited"
+
+                            client.getNow(9975, "localhost", "/", fourth -> {
+                                context.assertEquals(200, fourth.statusCode()); // Last token of the client
+
+                                client.getNow(9975, "localhost", "/", fifth -> {
+                                    context.assertEquals(429, fifth.statusCode()); // Client limit
+                                    async.complete();
+                                });
+                            });
+                        });
+                    });
+                });
+            });
+        }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void serve_event_loop_diagnostics_on_their_own_port(TestContext context) {
+        Async async = context.async(2);
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9965)
+            .put(ServerConfig.EVENT_LOOP_PROBE_INTERVAL_MS, 50)
+            .put(ServerConfig.DIAGNOSTICS_PORT, 9964);
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            EventLoopProbe.serveDiagnostics(vertx, config).setHandler(context.asyncAssertSuccess(server -> {
+                HttpClient client = vertx.createHttpClient();
+
+                client.getNow(9964, "localhost", EventLoopProbe.DIAGNOSTICS_PATH, response -> response.bodyHandler(body -> {
+                    context.assertEquals(200, response.statusCode());
+                    context.assertFalse(body.toJsonObject().getJsonArray("loops").isEmpty());
+                    async.countDown();
+                }));
+
+                // Not on the server port
+                client.getNow(9965, "localhost", EventLoopProbe.DIAGNOSTICS_PATH, response -> response.bodyHandler(body -> {
+                    context.assertEquals("Hello world", body.toString());
+                    async.countDown();
+                }));
+            }));
+        }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void drain_connections_on_undeploy(TestContext context) {
+        Async async = context.async();
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9974)
+            .put(ServerConfig.DRAIN_TIMEOUT_MS, 5_000)
+            .put(ServerConfig.UPSTREAMS, new JsonObject()
+                .put("slow", new JsonObject().put("host", "localhost").put("port", 9973)))
+            .put(ServerConfig.PROXY, new JsonObject().put("/slow", "slow"));
+
+        // Upstream answering after 500ms; the verticle is undeployed as soon as the request gets there, so
+        // with the request in flight
+        Future<Void> forwarded = Future.future();
+        long[] answeredAt = new long[1];
+        vertx.createHttpServer()
+             .requestHandler(req -> {
+                 forwarded.tryComplete();
+                 vertx.setTimer(500, timerId -> {
+                     answeredAt[0] = System.nanoTime();
+                     req.response().end("Done");
+                 });
+             })
+             .listen(9973, context.asyncAssertSuccess(upstream -> {
+
+                 vertx.deployVerticle(HttpServerVerticle::new,
+                                      new DeploymentOptions().setConfig(config),
+                                      context.asyncAssertSuccess(deploymentId -> {
+
+                     HttpClient client = vertx.createHttpClient();
+
+                     Future<String> responded = Future.future();
+                     client.getNow(9974, "localhost", "/slow", response -> response.bodyHandler(body -> {
+                         context.assertEquals(200, response.statusCode());
+                         responded.complete(body.toString());
+                     }));
+
+                     Future<Long> undeployed = forwarded.compose(v -> {
+                         Future<Void> undeploy = Future.future();
+                         vertx.undeploy(deploymentId, undeploy);
+                         return undeploy.map(done -> System.nanoTime());
+                     });
+
+                     CompositeFuture.all(responded, undeployed).setHandler(context.asyncAssertSuccess(both -> {
+                         context.assertEquals("Done", responded.result());
+                         context.assertTrue(undeployed.result() - answeredAt[0] > 0); // Once the response was sent
+                         async.complete();
+                     }));
+                 }));
+             }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void limit_connections_per_instance(TestContext context) {
+        Async async = context.async();
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9972)
+            .put(ServerConfig.MAX_CONNECTIONS, 1);
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            // Two clients, so two connections: the first one is kept alive, the second one is closed
+            HttpClient first = vertx.createHttpClient();
+            HttpClient second = vertx.createHttpClient();
+
+            first.getNow(9972, "localhost", "/", response -> {
+                context.assertEquals(200, response.statusCode());
+
+                second.get(9972, "localhost", "/", unexpected -> context.fail("Over the limit"))
+                      .exceptionHandler(closed -> async.complete())
+                      .end();
+            });
+        }));
+
+        async.await(5_000);
+    }
+
+    @Test
+    public void serve_h2_over_tls(TestContext context) {
+        Async async = context.async();
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9971)
+            .put(ServerConfig.TLS, SelfSignedCertificates.create().tlsConfig())
+            .put(ServerConfig.HTTP2, new JsonObject()
+                .put("maxConcurrentStreams", 250)
+                .put("initialWindowSize", 1024 * 1024));
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            // OpenSSL: ALPN on any JDK (Java 8 included)
+            HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+                                                           .setProtocolVersion(HttpVersion.HTTP_2)
+                                                           .setSsl(true)
+                                                           .setUseAlpn(true)
+                                                           .setSslEngineOptions(OpenSSLEngineOptions.isAvailable()
+                                                                                ? new OpenSSLEngineOptions()
+                                                                                : new JdkSSLEngineOptions())
+                                                           .setTrustAll(true));
+
+            client.getNow(9971, "localhost", "/", response -> {
+                context.assertEquals(HttpVersion.HTTP_2, response.version());
+                context.assertEquals(200, response.statusCode());
+
+                Http2Settings settings = response.request().connection().remoteSettings();
+                context.assertEquals(250L, settings.getMaxConcurrentStreams());
+                context.assertEquals(1024 * 1024, settings.getInitialWindowSize());
+
+                response.bodyHandler(body -> {
+                    context.assertEquals("Hello world", body.toString());
+                    async.complete();
+                });
+            });
+        }));
+
+        async.await(10_000);
+    }
+
+    @Test
+    public void resume_tls_sessions(TestContext context) throws IOException {
+        Async async = context.async();
+
+        // Current and previous ticket keys (used by the OpenSSL engine only)
+        Path current = Files.createTempFile("ticket", ".key");
+        Path previous = Files.createTempFile("ticket", ".key");
+        byte[] keys = new byte[96];
+        new SecureRandom().nextBytes(keys);
+        Files.write(current, Arrays.copyOfRange(keys, 0, 48));
+        Files.write(previous, Arrays.copyOfRange(keys, 48, 96));
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9968)
+            .put(ServerConfig.TLS, SelfSignedCertificates.create().tlsConfig()
+                                                         .put("protocols", new JsonArray().add("TLSv1.2"))
+                                                         .put("sessionCacheSize", 100)
+                                                         .put("sessionTimeoutSec", 60)
+                                                         .put("sessionTicketKeyFiles", new JsonArray()
+                                                             .add(current.toString())
+                                                             .add(previous.toString())));
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            // One connection per request; the client caches the session of the first one
+            HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+                                                           .setSsl(true)
+                                                           .setTrustAll(true)
+                                                           .setKeepAlive(false));
+
+            client.getNow(9968, "localhost", "/", first -> {
+                SSLSession session = first.request().connection().sslSession();
+                context.assertEquals("TLSv1.2", session.getProtocol());
+                context.assertTrue(TlsOptions.DEFAULT_CIPHER_SUITES.contains(session.getCipherSuite()));
+
+                first.endHandler(end -> client.getNow(9968, "localhost", "/", second -> {
+                    // Resumed: same session, no full handshake
+                    SSLSession resumed = second.request().connection().sslSession();
+                    context.assertTrue(Arrays.equals(session.getId(), resumed.getId()));
+                    async.complete();
+                }));
+            });
+        }));
+
+        async.await(10_000);
+    }
+
+    @Test
+    public void serve_h2c_with_prior_knowledge(TestContext context) {
+        Async async = context.async();
+
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9970);
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            // No HTTP/1.1 Upgrade round trip: the client starts with the HTTP/2 preface
+            HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+                                                           .setProtocolVersion(HttpVersion.HTTP_2)
+                                                           .setHttp2ClearTextUpgrade(false));
+
+            client.getNow(9970, "localhost", "/", response -> {
+                context.assertEquals(HttpVersion.HTTP_2, response.version());
+                context.assertEquals(200, response.statusCode());
+                async.complete();
+            });
+        }));
+
+        async.await(5_000);
+    }
+
+    private static String gunzip(byte[] gzipped) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            StringBuilder content = new StringBuilder();
+            byte[] chunk = new byte[4096];
+            for (int read; (read = in.read(chunk)) > 0; ) {
+                content.append(new String(chunk, 0, read, StandardCharsets.UTF_8));
+            }
+            return content.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    @Test
+    public void write_access_log(TestContext context) throws IOException {
+        Async async = context.async();
+
+        Path accessLog = Files.createTempDirectory("access-log").resolve("access.log");
+        JsonObject config = new JsonObject()
+            .put(ServerConfig.PORT, 9967)
+            .put(ServerConfig.ACCESS_LOG, new JsonObject().put("path", accessLog.toString()));
+
+        vertx.deployVerticle(HttpServerVerticle::new,
+                             new DeploymentOptions().setConfig(config),
+                             context.asyncAssertSuccess(deploymentId -> {
+
+            vertx.createHttpClient().getNow(9967, "localhost", "/logged?q=\"quoted\"", response -> {
+                context.assertEquals(200, response.statusCode());
+
+                // Written by the writer thread, shortly after the response
+                vertx.setPeriodic(50, timerId -> {
+                    String lines = Files.exists(accessLog) ? new String(vertx.fileSystem()
+                                                                             .readFileBlocking(accessLog.toString())
+                                                                             .getBytes(), StandardCharsets.US_ASCII)
+                                                           : "";
+                    if (lines.matches("(?s)127\\.0\\.0\\.1 - - \\[.+\\] \"GET /logged\\?q=\\\\x22quoted\\\\x22 HTTP/1\\.1\" 200 \\d+ \\d+\n")) {
+                        vertx.cancelTimer(timerId);
+                        async.complete();
+                    }
+                });
+            });
+        }));
+
+        async.await(10_000);
+    }
+
     @Test
     public void start_raw_http_server(TestContext context) {
         Async async = context.async();
@@ -160,6 +749,46 @@ public class HttpServerExample {
         async.await(300_000);
     }
 
+    @Test
+    public void start_trie_router_http_server(TestContext context) {
+        Async async = context.strictAsync(5);
+
+        // Same kind of routes as above, compiled into a trie: matching cost doesn't grow with the route count
+        TrieRouter router = TrieRouter.builder()
+                                      .get("/date", (req, params) -> req.response().end(new Date().toString()))
+                                      .route(null, "/time", (req, params) -> req.response().end(getCurrentTime()))
+                                      .get("/user/me", (req, params) -> req.response().end("me"))
+                                      .get("/user/:id", (req, params) -> req.response().end("user " + params.get("id")))
+                                      .get("/static/*", (req, params) -> req.response().end("static " + req.path()))
+                                      // Regex routes are only tried when no trie route matches
+                                      .regex(HttpMethod.GET, "/get/(.*)report", (req, params) -> req.response().end(params.get("param0")))
+                                      .notFound((req, params) -> req.response().setStatusCode(404).end("Not found"))
+                                      .build();
+
+        vertx.createHttpServer()
+             .requestHandler(router)
+             .listen(9979, context.asyncAssertSuccess(server -> {
+                 HttpClient client = vertx.createHttpClient();
+
+                 expect(context, async, client, "/user/me", 200, "me");
+                 expect(context, async, client, "/user/123", 200, "user 123");
+                 expect(context, async, client, "/static/css/main.css", 200, "static /static/css/main.css");
+                 expect(context, async, client, "/get/pdf-report", 200, "pdf-");
+                 expect(context, async, client, "/user/123/456", 404, "Not found");
+             }));
+
+        async.await(5_000);
+    }
+
+    private void expect(TestContext context, Async async, HttpClient client, String path, int status, String body) {
+        client.getNow(9979, "localhost", path, response -> response.bodyHandler(responseBody -> {
+            context.assertEquals(status, response.statusCode());
+            context.assertEquals(body, responseBody.toString());
+            async.countDown();
+        }));
+    }
+
+
     private void randRouteHandler(RoutingContext routingContext) {
         routingContext.response()
                       .end("Random number is " + randomInt());
@@ -0,0 +1,92 @@
+package com.manikanta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.manikanta.data.JdbcDataAccess;
+import com.manikanta.data.PurchaseRepository;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@RunWith(VertxUnitRunner.class)
+public class JdbcExamples {
+
+    private static Vertx vertx;
+    private static JdbcDataAccess dataAccess;
+    private static PurchaseRepository purchases;
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcExamples.class);
+
+    @BeforeClass
+    public static void setup(TestContext context) {
+        vertx = Vertx.vertx();
+
+        // Embedded, in-memory H2 database (kept open till the JVM exits)
+        dataAccess = new JdbcDataAccess(vertx, new JsonObject()
+            .put("url", "jdbc:h2:mem:purchases;DB_CLOSE_DELAY=-1")
+            .put("driver_class", "org.h2.Driver")
+            .put("max_pool_size", 4)
+            .put("min_pool_size", 1));
+        purchases = new PurchaseRepository(dataAccess);
+
+        Async async = context.async();
+        purchases.createSchema().setHandler(context.asyncAssertSuccess(v -> async.complete()));
+        async.await(10_000);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        dataAccess.close();
+        vertx.close();
+    }
+
+
+    @Test
+    public void single_row_insert(TestContext context) {
+        Async async = context.async();
+
+        // Runs on a worker thread; the handler is called back on the event loop
+        purchases.insert("mani", 500)
+                 .compose(updated -> purchases.totalPurchase("mani"))
+                 .setHandler(context.asyncAssertSuccess(total -> {
+                     LOG.info("Total purchase: {}", total);
+                     context.assertEquals(500L, total);
+                     async.complete();
+                 }));
+
+        async.await(5_000);
+    }
+
+
+    @Test
+    public void batch_insert(TestContext context) {
+        Async async = context.async();
+
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            rows.add(new JsonObject().put("userId", "batch-user").put("amount", i));
+        }
+
+        // One batchWithParams() round trip & commit instead of 100
+        purchases.insertAll(rows)
+                 .compose(inserted -> {
+                     context.assertEquals(100, inserted);
+                     return purchases.totalPurchase("batch-user");
+                 })
+                 .setHandler(context.asyncAssertSuccess(total -> {
+                     LOG.info("Total purchase: {}", total);
+                     context.assertEquals(5050L, total);
+                     async.complete();
+                 }));
+
+        async.await(5_000);
+    }
+}
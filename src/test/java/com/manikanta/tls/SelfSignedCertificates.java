@@ -0,0 +1,118 @@
+package com.manikanta.tls;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Self-signed certificate for localhost, generated by the tests and benchmarks in temporary PEM files, so no
+ * key is kept in the repo.
+ * <p>
+ * Generated with the JDK <code>keytool</code> (Netty's SelfSignedCertificate needs either Bouncy Castle or JDK
+ * internal classes that are gone in recent JDKs), then exported from the key store as PEM: the OpenSSL engine
+ * takes the key and certificate as is, while it can't use a PKCS#12 store (KeyManagerFactory).
+ */
+public final class SelfSignedCertificates {
+
+    private static final String PASSWORD = "changeit";
+    private static final String ALIAS = "localhost";
+
+    private final String certPath;
+    private final String keyPath;
+
+
+    private SelfSignedCertificates(String certPath, String keyPath) {
+        this.certPath = certPath;
+        this.keyPath = keyPath;
+    }
+
+
+    /**
+     * RSA 2048 certificate.
+     */
+    public static SelfSignedCertificates create() {
+        return create("RSA", 2048);
+    }
+
+    /**
+     * Certificate of the given key algorithm (RSA, EC) and size; blocking (keytool runs in a process).
+     */
+    public static SelfSignedCertificates create(String keyAlgorithm, int keySize) {
+        try {
+            Path dir = Files.createTempDirectory("localhost-tls");
+            dir.toFile().deleteOnExit();
+            File keyStore = dir.resolve("localhost.p12").toFile();
+
+            String keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+            Process process = new ProcessBuilder(keytool, "-genkeypair",
+                                                 "-alias", ALIAS,
+                                                 "-keyalg", keyAlgorithm, "-keysize", String.valueOf(keySize),
+                                                 "-dname", "CN=localhost",
+                                                 "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                                                 "-validity", "2",
+                                                 "-storetype", "PKCS12",
+                                                 "-keystore", keyStore.getPath(),
+                                                 "-storepass", PASSWORD,
+                                                 "-keypass", PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IllegalStateException("keytool failed to generate " + keyStore);
+            }
+
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            try (InputStream in = new FileInputStream(keyStore)) {
+                store.load(in, PASSWORD.toCharArray());
+            }
+            keyStore.deleteOnExit();
+
+            Path cert = pem(dir.resolve("cert.pem"), "CERTIFICATE", store.getCertificate(ALIAS).getEncoded());
+            Path key = pem(dir.resolve("key.pem"), "PRIVATE KEY", store.getKey(ALIAS, PASSWORD.toCharArray()).getEncoded());
+            return new SelfSignedCertificates(cert.toString(), key.toString());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    public String certPath() {
+        return certPath;
+    }
+
+    public String keyPath() {
+        return keyPath;
+    }
+
+    /**
+     * The <code>tls</code> config of the server (see ServerTls).
+     */
+    public JsonObject tlsConfig() {
+        return new JsonObject()
+            .put("certPath", certPath)
+            .put("keyPath", keyPath);
+    }
+
+
+    private static Path pem(Path file, String type, byte[] der) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+            + "\n-----END " + type + "-----\n";
+        Files.write(file, pem.getBytes(StandardCharsets.US_ASCII));
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}